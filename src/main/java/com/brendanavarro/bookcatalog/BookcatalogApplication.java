@@ -4,20 +4,42 @@ import com.brendanavarro.bookcatalog.console.ConsoleMenu;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 
 /**
  * App de consola: muestra menú e interactúa con la persona usuaria.
- * Perfil activo "api" -> sin servidor web ni DataSource.
+ * Perfil activo "api" -> sin servidor web ni DataSource (auto-configuración explícita).
+ * Perfil "fast" -> inicialización perezosa para invocaciones cortas por script.
+ * Perfil "server" -> API HTTP/JSON (CatalogHttpServer) y sin menú de consola.
  */
 @SpringBootApplication
 public class BookcatalogApplication {
 
 	public static void main(String[] args) {
+		configureHttpServer();
 		SpringApplication.run(BookcatalogApplication.class, args);
 	}
 
+	/**
+	 * Ajustes del HttpServer del JDK (perfil "server"). Son propiedades de toda la JVM que se leen
+	 * una sola vez, al crear el primer servidor; se respetan si ya vienen con -D.
+	 * - nodelay: cabeceras y cuerpo salen en escrituras separadas y, sin TCP_NODELAY, Nagle + ACK
+	 *   retardado suman ~40 ms a cada respuesta.
+	 * - maxIdleConnections: por defecto solo 200 conexiones keep-alive quedan abiertas entre
+	 *   peticiones; con miles de lectores el resto se cierra y cada petición reconecta.
+	 */
+	public static void configureHttpServer() {
+		setIfAbsent("sun.net.httpserver.nodelay", "true");
+		setIfAbsent("sun.net.httpserver.maxIdleConnections", "10000");
+	}
+
+	private static void setIfAbsent(String key, String value) {
+		if (System.getProperty(key) == null) System.setProperty(key, value);
+	}
+
 	@Bean
+	@ConditionalOnProperty(name = "bookcatalog.console.enabled", havingValue = "true", matchIfMissing = true)
 	CommandLineRunner runMenu(ConsoleMenu menu) {
 		return args -> menu.start();
 	}
@@ -0,0 +1,205 @@
+package com.brendanavarro.bookcatalog.analytics;
+
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+import com.brendanavarro.bookcatalog.domain.TextStats;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Estadísticas de corpus sobre los textos ya descargados (opción 10 del menú).
+ * - Cada archivo se mapea en memoria (FileChannel.map) y se tokeniza con {@link TokenizeTask}
+ *   en el ForkJoinPool común: en paralelo entre libros y dentro de cada libro.
+ * - Las frecuencias viven en tablas de claves primitivas ({@link TermCounts}) que se suman por
+ *   libro, idioma, autor y total; solo los términos del top-N se convierten a String.
+ * - El resultado de cada libro queda en {@code Book.textStats}.
+ * - Si el archivo trae las marcas de Project Gutenberg ("*** START OF" / "*** END OF"), solo se
+ *   cuenta el texto entre ellas: la licencia de cabecera y pie no es parte del libro. Las marcas
+ *   se buscan solo en los primeros y últimos {@link #MARKER_WINDOW} bytes, no en el libro entero.
+ *
+ * Solo se analizan textos planos (.txt); los EPUB van comprimidos y se omiten.
+ * Cada archivo se mapea entero, por lo que su tamaño máximo es 2 GB.
+ *
+ * Limitación: Java no ofrece forma de liberar un mapeo; sigue vivo hasta que el GC recolecta el
+ * buffer, aunque analyze() ya no guarde referencias (los términos del top-N se copian a String
+ * antes de volver). En Windows un archivo mapeado no se puede reemplazar, así que volver a
+ * descargar (opción 9) justo después de analizar puede fallar al renombrar el ".part"; basta
+ * con reintentar más tarde.
+ */
+@Service
+public class CorpusAnalyzer {
+
+    static final int TOP_TERMS = 10;
+    /** Velocidad media de lectura silenciosa de un adulto (palabras por minuto). */
+    static final double WORDS_PER_MINUTE = 238;
+
+    private static final byte[] GUTENBERG_START = "*** START OF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GUTENBERG_END = "*** END OF".getBytes(StandardCharsets.US_ASCII);
+    /** Cabecera y pie de Gutenberg ocupan unos pocos KB; más allá de esto ya es texto del libro. */
+    static final int MARKER_WINDOW = 64 * 1024;
+
+    private final ForkJoinPool pool;
+
+    public CorpusAnalyzer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    CorpusAnalyzer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public CorpusReport analyze(Collection<Book> books) throws IOException {
+        long started = System.nanoTime();
+
+        List<Book> analyzable = new ArrayList<>();
+        List<MappedByteBuffer> buffers = new ArrayList<>();
+        Map<Integer, String> skipped = new LinkedHashMap<>();
+        long totalBytes = 0;
+
+        for (Book book : books) {
+            String reason = skipReason(book);
+            if (reason != null) {
+                skipped.put(book.getGutendexId(), reason);
+                continue;
+            }
+            if (buffers.size() == TokenizeTask.MAX_SOURCES) {
+                skipped.put(book.getGutendexId(), "demasiados archivos en un solo análisis");
+                continue;
+            }
+            MappedByteBuffer mapped = map(Path.of(book.getContentPath()));
+            analyzable.add(book);
+            buffers.add(mapped);
+            totalBytes += mapped.limit();
+        }
+
+        // Todos los libros a la vez: el pool reparte hojas de todos los archivos entre los núcleos
+        List<TokenizeTask> tasks = new ArrayList<>(buffers.size());
+        for (int i = 0; i < buffers.size(); i++) {
+            MappedByteBuffer buffer = buffers.get(i);
+            int[] body = bodyRange(buffer);
+            tasks.add(new TokenizeTask(buffer, i, body[0], body[1]));
+        }
+        tasks.forEach(pool::execute);
+        List<TermCounts> perBook = tasks.stream().map(ForkJoinTask::join).toList();
+
+        TermResolver resolver = new TermResolver(buffers);
+        TermCounts total = new TermCounts();
+        Map<String, TermCounts> byLanguage = new TreeMap<>();
+        Map<String, TermCounts> byAuthor = new TreeMap<>();
+
+        for (int i = 0; i < analyzable.size(); i++) {
+            Book book = analyzable.get(i);
+            TermCounts counts = perBook.get(i);
+            book.setTextStats(toStats(counts, resolver));
+
+            total.mergeFrom(counts);
+            String language = book.getPrimaryLanguage() == null ? "N/D" : book.getPrimaryLanguage();
+            byLanguage.computeIfAbsent(language, k -> new TermCounts()).mergeFrom(counts);
+            for (Author a : book.getAuthors()) {
+                byAuthor.computeIfAbsent(a.toString(), k -> new TermCounts()).mergeFrom(counts);
+            }
+        }
+
+        Map<String, TextStats> languageStats = new TreeMap<>();
+        byLanguage.forEach((k, v) -> languageStats.put(k, toStats(v, resolver)));
+        Map<String, TextStats> authorStats = new TreeMap<>();
+        byAuthor.forEach((k, v) -> authorStats.put(k, toStats(v, resolver)));
+
+        TextStats totalStats = toStats(total, resolver);
+        // Los términos ya se copiaron a String: sin referencias, el GC puede liberar los mapeos
+        buffers.clear();
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        return new CorpusReport(analyzable.size(), totalBytes, elapsedMs,
+                totalStats, languageStats, authorStats, skipped);
+    }
+
+    private static String skipReason(Book book) throws IOException {
+        String path = book.getContentPath();
+        if (path == null) return "sin contenido descargado";
+        if (!path.toLowerCase(Locale.ROOT).endsWith(".txt")) return "formato no soportado (solo .txt)";
+        Path file = Path.of(path);
+        if (!Files.isRegularFile(file)) return "archivo no encontrado: " + path;
+        if (Files.size(file) > Integer.MAX_VALUE) return "archivo mayor a 2 GB";
+        return null;
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // El mapeo sigue vivo después de cerrar el canal
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Rango [desde, hasta) con el texto del libro: desde la línea siguiente a "*** START OF ..." hasta
+     * el inicio de la línea "*** END OF ...". Sin marcas, el archivo completo.
+     * Cada marca se busca solo en su ventana (cabecera o pie), así el costo no crece con el libro.
+     */
+    static int[] bodyRange(ByteBuffer buffer) {
+        int from = 0;
+        int to = buffer.limit();
+        int start = indexOf(buffer, GUTENBERG_START, 0, Math.min(to, MARKER_WINDOW));
+        if (start >= 0) {
+            int newline = indexOf(buffer, new byte[]{'\n'}, start, to);
+            from = newline < 0 ? to : newline + 1;
+        }
+        int end = lastIndexOf(buffer, GUTENBERG_END, Math.max(from, to - MARKER_WINDOW));
+        if (end >= 0) to = end;
+        return new int[]{from, to};
+    }
+
+    /** Primera aparición que empieza en [from, until) y cabe en el buffer. */
+    private static int indexOf(ByteBuffer buffer, byte[] needle, int from, int until) {
+        for (int i = from, last = Math.min(until - 1, buffer.limit() - needle.length); i <= last; i++) {
+            if (matchesAt(buffer, needle, i)) return i;
+        }
+        return -1;
+    }
+
+    /** Busca desde el final hacia atrás, sin bajar de {@code from}. */
+    private static int lastIndexOf(ByteBuffer buffer, byte[] needle, int from) {
+        for (int i = buffer.limit() - needle.length; i >= from; i--) {
+            if (matchesAt(buffer, needle, i)) return i;
+        }
+        return -1;
+    }
+
+    private static boolean matchesAt(ByteBuffer buffer, byte[] needle, int at) {
+        for (int j = 0; j < needle.length; j++) {
+            if (buffer.get(at + j) != needle[j]) return false;
+        }
+        return true;
+    }
+
+    private static TextStats toStats(TermCounts counts, TermResolver resolver) {
+        long[][] top = counts.top(TOP_TERMS);
+        List<TextStats.TermCount> terms = new ArrayList<>(top.length);
+        for (long[] entry : top) {
+            terms.add(new TextStats.TermCount(resolver.resolve(entry[1]), entry[0]));
+        }
+        return new TextStats(counts.total(), counts.size(), counts.total() / WORDS_PER_MINUTE, terms);
+    }
+
+    /** Reconstruye el texto de un término a partir de su referencia (archivo + posición + largo). */
+    private record TermResolver(List<MappedByteBuffer> buffers) {
+
+        String resolve(long ref) {
+            MappedByteBuffer buffer = buffers.get(TokenizeTask.refSource(ref));
+            byte[] bytes = new byte[TokenizeTask.refLength(ref)];
+            buffer.get(TokenizeTask.refPosition(ref), bytes);
+            return new String(bytes, StandardCharsets.UTF_8).replace('’', '\'').toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.brendanavarro.bookcatalog.analytics;
+
+import com.brendanavarro.bookcatalog.domain.TextStats;
+
+import java.util.Map;
+
+/**
+ * Resultado de {@link CorpusAnalyzer#analyze}: totales del corpus y estadísticas agrupadas.
+ * Las estadísticas de cada libro quedan además en {@code Book.textStats}.
+ *
+ * @param skipped libros no analizados: gutendexId -> motivo
+ */
+public record CorpusReport(int booksAnalyzed, long bytesScanned, long elapsedMs,
+                           TextStats total,
+                           Map<String, TextStats> byLanguage,
+                           Map<String, TextStats> byAuthor,
+                           Map<Integer, String> skipped) {
+}
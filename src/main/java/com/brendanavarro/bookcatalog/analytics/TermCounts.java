@@ -0,0 +1,116 @@
+package com.brendanavarro.bookcatalog.analytics;
+
+import java.util.PriorityQueue;
+
+/**
+ * Tabla de frecuencias con claves primitivas (hash de 64 bits del término en minúsculas).
+ * Direccionamiento abierto con sondeo lineal: sin objetos por entrada ni boxing.
+ *
+ * Además del conteo, cada término guarda una "referencia" empaquetada a su primera aparición
+ * (archivo + posición + largo en bytes) para poder reconstruir el texto SOLO de los términos
+ * que se muestran (top-N), en vez de crear un String por palabra.
+ */
+final class TermCounts {
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final double MAX_LOAD = 0.6;
+
+    private long[] keys;     // 0 = vacío (los hashes nunca valen 0, ver TokenizeTask)
+    private long[] counts;
+    private long[] refs;
+    private int size;
+    private long total;
+
+    TermCounts() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private TermCounts(int capacity) {
+        keys = new long[capacity];
+        counts = new long[capacity];
+        refs = new long[capacity];
+    }
+
+    /** Total de ocurrencias (suma de todos los conteos). */
+    long total() { return total; }
+
+    /** Términos distintos. */
+    int size() { return size; }
+
+    void add(long key, long count, long ref) {
+        if (size + 1 > keys.length * MAX_LOAD) grow();
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                counts[i] += count;
+                total += count;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        counts[i] = count;
+        refs[i] = ref;
+        size++;
+        total += count;
+    }
+
+    /** Suma los conteos de {@code other} en esta tabla. */
+    void mergeFrom(TermCounts other) {
+        long[] otherKeys = other.keys;
+        for (int i = 0; i < otherKeys.length; i++) {
+            if (otherKeys[i] != 0) add(otherKeys[i], other.counts[i], other.refs[i]);
+        }
+    }
+
+    /**
+     * Los {@code n} términos más frecuentes, de mayor a menor (empate: menor hash primero).
+     * @return pares [conteo, referencia] en un arreglo plano
+     */
+    long[][] top(int n) {
+        // Min-heap de índices por conteo: la cabeza es el menos frecuente de los conservados
+        PriorityQueue<Integer> heap = new PriorityQueue<>(n + 1, (a, b) -> compareSlots(b, a));
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == 0) continue;
+            if (heap.size() < n) {
+                heap.add(i);
+            } else if (compareSlots(i, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        long[][] result = new long[heap.size()][];
+        for (int pos = result.length - 1; pos >= 0; pos--) {
+            int slot = heap.poll();
+            result[pos] = new long[]{counts[slot], refs[slot]};
+        }
+        return result;
+    }
+
+    /** Orden "mejor primero": mayor conteo, luego menor clave (determinista). */
+    private int compareSlots(int a, int b) {
+        int byCount = Long.compare(counts[b], counts[a]);
+        return byCount != 0 ? byCount : Long.compare(keys[a], keys[b]);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        long[] oldRefs = refs;
+        keys = new long[oldKeys.length << 1];
+        counts = new long[oldKeys.length << 1];
+        refs = new long[oldKeys.length << 1];
+        size = 0;
+        long keepTotal = total;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) add(oldKeys[i], oldCounts[i], oldRefs[i]);
+        }
+        total = keepTotal;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
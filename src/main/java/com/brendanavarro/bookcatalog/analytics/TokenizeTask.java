@@ -0,0 +1,189 @@
+package com.brendanavarro.bookcatalog.analytics;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Cuenta palabras de un rango de bytes UTF-8 (un archivo mapeado en memoria) con fork-join.
+ *
+ * - El rango se parte por la mitad hasta bloques de {@link #CHUNK_SIZE}; los resultados se combinan.
+ * - Una palabra pertenece al bloque donde EMPIEZA: si un bloque arranca a mitad de palabra la salta,
+ *   y si una palabra cruza el final del bloque la termina de leer.
+ * - Palabra = letras/dígitos Unicode, con apóstrofos internos ("don't", "l’homme").
+ * - Los code points se decodifican directo del buffer y se acumula un hash FNV-1a en minúsculas:
+ *   no se crea ningún String por palabra.
+ */
+final class TokenizeTask extends RecursiveTask<TermCounts> {
+
+    static final int CHUNK_SIZE = 1 << 20;   // 1 MB por hoja
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // Referencia empaquetada: [fuente:20 bits][posición:36 bits][largo:8 bits]
+    private static final int REF_LENGTH_BITS = 8;
+    private static final int REF_SOURCE_SHIFT = 44;
+    static final int MAX_SOURCES = 1 << 20;
+
+    /** Bytes de continuación que puede tener un carácter UTF-8 válido. */
+    private static final int MAX_CONTINUATION_BYTES = 3;
+
+    private final ByteBuffer buffer;
+    private final int source;
+    private final int from;
+    private final int to;
+
+    /** Solo las palabras que empiezan en [from, to); la última puede terminar después de {@code to}. */
+    TokenizeTask(ByteBuffer buffer, int source, int from, int to) {
+        this.buffer = buffer;
+        this.source = source;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected TermCounts compute() {
+        if (to - from <= CHUNK_SIZE) return tokenize();
+
+        int mid = from + (to - from) / 2;
+        // No partir un carácter multibyte: avanzar hasta un byte inicial. Con bytes inválidos
+        // (continuaciones sueltas) se corta igual, tras a lo sumo 3: no forman palabras
+        int maxMid = Math.min(to, mid + MAX_CONTINUATION_BYTES);
+        while (mid < maxMid && isContinuation(buffer.get(mid))) mid++;
+        if (mid >= to) return tokenize();
+
+        TokenizeTask left = new TokenizeTask(buffer, source, from, mid);
+        TokenizeTask right = new TokenizeTask(buffer, source, mid, to);
+        left.fork();
+        TermCounts rightCounts = right.compute();
+        TermCounts leftCounts = left.join();
+
+        // Se vuelca la tabla chica en la grande
+        if (leftCounts.size() >= rightCounts.size()) {
+            leftCounts.mergeFrom(rightCounts);
+            return leftCounts;
+        }
+        rightCounts.mergeFrom(leftCounts);
+        return rightCounts;
+    }
+
+    private TermCounts tokenize() {
+        TermCounts counts = new TermCounts();
+        int limit = buffer.limit();
+        int pos = from;
+
+        // Si el bloque empieza a mitad de palabra, esa palabra es del bloque anterior
+        if (pos > 0 && startsInsideWord(pos)) {
+            while (pos < limit) {
+                long d = decode(buffer, pos, limit);
+                int cp = codePoint(d);
+                if (isWordChar(cp) || (isApostrophe(cp) && nextIsWordChar(pos + length(d), limit))) {
+                    pos += length(d);
+                } else {
+                    break;
+                }
+            }
+        }
+
+        while (pos < to) {
+            long d = decode(buffer, pos, limit);
+            int cp = codePoint(d);
+            if (!isWordChar(cp)) {
+                pos += length(d);
+                continue;
+            }
+
+            int start = pos;
+            long hash = FNV_OFFSET;
+            while (true) {
+                hash = (hash ^ Character.toLowerCase(cp)) * FNV_PRIME;
+                pos += length(d);
+                if (pos >= limit) break;
+
+                d = decode(buffer, pos, limit);
+                cp = codePoint(d);
+                if (isWordChar(cp)) continue;
+                if (isApostrophe(cp) && nextIsWordChar(pos + length(d), limit)) {
+                    cp = '\'';   // ' y ’ cuentan igual
+                    continue;
+                }
+                break;
+            }
+            counts.add(hash == 0 ? 1 : hash, 1, ref(source, start, pos - start));
+        }
+        return counts;
+    }
+
+    /** ¿La posición cae dentro de una palabra que empezó antes? */
+    private boolean startsInsideWord(int pos) {
+        long before = decodeBefore(buffer, pos);
+        int prev = codePoint(before);
+        if (isWordChar(prev)) return true;
+        if (!isApostrophe(prev)) return false;
+        int apostropheStart = pos - length(before);
+        return apostropheStart > 0
+                && isWordChar(codePoint(decodeBefore(buffer, apostropheStart)))
+                && isWordChar(codePoint(decode(buffer, pos, buffer.limit())));
+    }
+
+    private boolean nextIsWordChar(int pos, int limit) {
+        return pos < limit && isWordChar(codePoint(decode(buffer, pos, limit)));
+    }
+
+    // ===================== UTF-8 sin objetos =====================
+
+    /** Decodifica el code point en {@code pos}: devuelve (codePoint << 3) | largo. Inválido = -1. */
+    static long decode(ByteBuffer b, int pos, int limit) {
+        int b0 = b.get(pos);
+        if (b0 >= 0) return ((long) b0 << 3) | 1;
+
+        int len;
+        int cp;
+        if ((b0 & 0xE0) == 0xC0) { len = 2; cp = b0 & 0x1F; }
+        else if ((b0 & 0xF0) == 0xE0) { len = 3; cp = b0 & 0x0F; }
+        else if ((b0 & 0xF8) == 0xF0) { len = 4; cp = b0 & 0x07; }
+        else return invalid();
+
+        if (pos + len > limit) return invalid();
+        for (int i = 1; i < len; i++) {
+            int bi = b.get(pos + i);
+            if (!isContinuation((byte) bi)) return invalid();
+            cp = (cp << 6) | (bi & 0x3F);
+        }
+        return ((long) cp << 3) | len;
+    }
+
+    /** Decodifica el code point que termina justo antes de {@code pos}. */
+    static long decodeBefore(ByteBuffer b, int pos) {
+        int start = pos - 1;
+        while (start > 0 && pos - start < 4 && isContinuation(b.get(start))) start--;
+        long d = decode(b, start, pos);
+        return length(d) == pos - start ? d : invalid();
+    }
+
+    private static long invalid() {
+        return (-1L << 3) | 1;
+    }
+
+    static int codePoint(long decoded) { return (int) (decoded >> 3); }
+
+    static int length(long decoded) { return (int) (decoded & 0x7); }
+
+    private static boolean isContinuation(byte b) { return (b & 0xC0) == 0x80; }
+
+    private static boolean isWordChar(int cp) { return cp >= 0 && Character.isLetterOrDigit(cp); }
+
+    private static boolean isApostrophe(int cp) { return cp == '\'' || cp == '’'; }
+
+    // ===================== REFERENCIAS =====================
+
+    static long ref(int source, long position, int length) {
+        return ((long) source << REF_SOURCE_SHIFT) | (position << REF_LENGTH_BITS) | Math.min(length, 0xFF);
+    }
+
+    static int refSource(long ref) { return (int) (ref >>> REF_SOURCE_SHIFT); }
+
+    static int refPosition(long ref) { return (int) ((ref >>> REF_LENGTH_BITS) & ((1L << 36) - 1)); }
+
+    static int refLength(long ref) { return (int) (ref & 0xFF); }
+}
@@ -0,0 +1,156 @@
+package com.brendanavarro.bookcatalog.catalog;
+
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Catálogo EN MEMORIA compartido por el menú y los demás componentes (exportación, consultas...).
+ * - Clave de libros = gutendexId (evita duplicados).
+ * - Mantiene un índice de autores únicos que se actualiza al registrar, para no tener
+ *   que recorrer todos los libros cada vez que se listan o exportan autores.
+ * - Índices secundarios por idioma y por descargas, usados por el planificador de consultas.
+ * - Concurrencia (modo servidor): registrar toma el lock de escritura y sube {@link #version()};
+ *   las lecturas desde varios hilos deben hacerse dentro de {@link #read(Supplier)}.
+ *   Las vistas/streams "en vivo" son para un solo hilo (la consola).
+ */
+@Component
+public class BookCatalog {
+
+    private final Map<Integer, Book> books = new LinkedHashMap<>();
+
+    // Autores únicos por "displayName|birth|death" (ordenados, como en el listado de la opción 3)
+    private final Map<String, Author> authors = new TreeMap<>();
+
+    // Índices secundarios (solo se agregan libros; nunca se eliminan)
+    private final Map<String, List<Book>> booksByLanguage = new HashMap<>();
+    private final NavigableMap<Integer, List<Book>> booksByDownloads = new TreeMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Cambia con cada registro; junto con la época forma el ETag del API HTTP
+    private final AtomicLong version = new AtomicLong();
+    // Distinta en cada instancia (y por lo tanto en cada arranque): la versión vuelve a 0 al reiniciar
+    private final String epoch = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+
+    /**
+     * Registra un libro si aún no existe.
+     * @return true si se agregó; false si ya estaba registrado.
+     */
+    public boolean register(Book book) {
+        if (book == null || book.getGutendexId() == null) {
+            throw new IllegalArgumentException("El libro debe tener gutendexId");
+        }
+        lock.writeLock().lock();
+        try {
+            if (books.containsKey(book.getGutendexId())) return false;
+
+            books.put(book.getGutendexId(), book);
+            book.getAuthors().forEach(a -> authors.putIfAbsent(keyOf(a), a));
+            if (book.getPrimaryLanguage() != null) {
+                booksByLanguage.computeIfAbsent(languageKey(book.getPrimaryLanguage()), k -> new ArrayList<>()).add(book);
+            }
+            if (book.getDownloadCount() != null) {
+                booksByDownloads.computeIfAbsent(book.getDownloadCount(), k -> new ArrayList<>()).add(book);
+            }
+            version.incrementAndGet();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(Integer gutendexId) {
+        return read(() -> books.containsKey(gutendexId));
+    }
+
+    public Optional<Book> findById(Integer gutendexId) {
+        return read(() -> Optional.ofNullable(books.get(gutendexId)));
+    }
+
+    public boolean isEmpty() { return size() == 0; }
+
+    public int size() { return read(books::size); }
+
+    /** Versión actual: empieza en 0 y sube con cada libro registrado. */
+    public long version() { return version.get(); }
+
+    /**
+     * "época-versión": identifica el contenido entre reinicios. Con solo la versión, tras reiniciar y
+     * registrar N libros distintos, un cliente con la versión N del proceso anterior la vería vigente.
+     */
+    public String revision() { return epoch + "-" + version.get(); }
+
+    /**
+     * Ejecuta una lectura con el lock de lectura tomado (varios lectores a la vez; los registros esperan).
+     * El resultado no debe ser una vista "en vivo": hay que materializarlo dentro de {@code action}.
+     */
+    public <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Vista de solo lectura, en orden de registro. */
+    public Collection<Book> books() {
+        return Collections.unmodifiableCollection(books.values());
+    }
+
+    /** Vista de solo lectura de los autores únicos, ordenados por clave. */
+    public Collection<Author> authors() {
+        return Collections.unmodifiableCollection(authors.values());
+    }
+
+    public Stream<Book> streamBooks() { return books.values().stream(); }
+
+    public Stream<Author> streamAuthors() { return authors.values().stream(); }
+
+    // ===================== ÍNDICES =====================
+
+    /** Libros cuyo idioma principal coincide (sin importar mayúsculas). */
+    public List<Book> booksInLanguage(String language) {
+        List<Book> found = booksByLanguage.get(languageKey(language));
+        return found == null ? List.of() : Collections.unmodifiableList(found);
+    }
+
+    /** Libros con descargas en [min, max]; un extremo null significa "sin límite". Excluye descargas null. */
+    public Stream<Book> streamBooksWithDownloadsBetween(Integer min, Integer max) {
+        return downloadRange(min, max).values().stream().flatMap(List::stream);
+    }
+
+    /** Cuántos libros devolvería {@link #streamBooksWithDownloadsBetween} (recorre grupos del índice, no libros). */
+    public int countBooksWithDownloadsBetween(Integer min, Integer max) {
+        int total = 0;
+        for (List<Book> bucket : downloadRange(min, max).values()) total += bucket.size();
+        return total;
+    }
+
+    private NavigableMap<Integer, List<Book>> downloadRange(Integer min, Integer max) {
+        if (min != null && max != null && min > max) return Collections.emptyNavigableMap();
+        NavigableMap<Integer, List<Book>> range = booksByDownloads;
+        if (min != null) range = range.tailMap(min, true);
+        if (max != null) range = range.headMap(max, true);
+        return range;
+    }
+
+    private static String languageKey(String language) {
+        return language == null ? "" : language.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Clave compuesta para deduplicar autores en memoria. */
+    public static String keyOf(Author a) {
+        return (a.getDisplayName() == null ? "?" : a.getDisplayName()) + "|" +
+                (a.getBirthYear() == null ? "?" : a.getBirthYear()) + "|" +
+                (a.getDeathYear() == null ? "?" : a.getDeathYear());
+    }
+}
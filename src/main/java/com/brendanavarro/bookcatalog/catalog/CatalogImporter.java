@@ -0,0 +1,51 @@
+package com.brendanavarro.bookcatalog.catalog;
+
+import com.brendanavarro.bookcatalog.domain.Book;
+import com.brendanavarro.bookcatalog.gutendex.GutendexClient;
+import com.brendanavarro.bookcatalog.gutendex.GutendexFilter;
+import com.brendanavarro.bookcatalog.gutendex.mapper.GutendexMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Trae libros de Gutendex filtrados en el servidor y los agrega al catálogo en memoria.
+ * Solo se transfieren las páginas necesarias para llegar a {@code max} libros.
+ */
+@Service
+public class CatalogImporter {
+
+    private final GutendexClient client;
+    private final GutendexMapper mapper;
+    private final BookCatalog catalog;
+
+    public CatalogImporter(GutendexClient client, GutendexMapper mapper, BookCatalog catalog) {
+        this.client = client;
+        this.mapper = mapper;
+        this.catalog = catalog;
+    }
+
+    /** Resumen de una importación: cuántos libros llegaron y cuántos eran nuevos. */
+    public record ImportResult(int fetched, int added) {}
+
+    /**
+     * @param max máximo de libros a traer (corta la paginación al alcanzarlo)
+     * @throws java.io.UncheckedIOException si falla la comunicación con Gutendex
+     */
+    public ImportResult importMatching(GutendexFilter filter, int max) {
+        if (max <= 0) throw new IllegalArgumentException("El máximo debe ser positivo");
+
+        int[] fetched = {0};
+        int[] added = {0};
+        try (Stream<Book> books = client.streamBooks(filter).limit(max).map(mapper::toDomain)) {
+            books.filter(Objects::nonNull)
+                    .filter(b -> b.getGutendexId() != null)
+                    .forEach(b -> {
+                        fetched[0]++;
+                        if (catalog.register(b)) added[0]++;
+                    });
+        }
+        return new ImportResult(fetched[0], added[0]);
+    }
+}
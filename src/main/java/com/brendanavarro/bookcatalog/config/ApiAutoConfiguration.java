@@ -0,0 +1,19 @@
+package com.brendanavarro.bookcatalog.config;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Auto-configuración EXPLÍCITA del perfil "api" (app de consola sin web ni base de datos).
+ * application-api.yml apaga la auto-configuración por classpath, así que solo se evalúa esta lista
+ * en vez de los ~150 candidatos de Spring Boot (JPA, DataSource, Jackson, JMX, etc.).
+ * - PropertyPlaceholder: resuelve los ${...} de @Value.
+ * Jackson no hace falta: el ObjectMapper lo define {@link JacksonConfig}.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("api")
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+public class ApiAutoConfiguration {
+}
@@ -1,13 +1,28 @@
 package com.brendanavarro.bookcatalog.console;
 
+import com.brendanavarro.bookcatalog.analytics.CorpusAnalyzer;
+import com.brendanavarro.bookcatalog.analytics.CorpusReport;
+import com.brendanavarro.bookcatalog.catalog.BookCatalog;
+import com.brendanavarro.bookcatalog.catalog.CatalogImporter;
+import com.brendanavarro.bookcatalog.content.ContentDownloader;
+import com.brendanavarro.bookcatalog.content.DownloadResult;
 import com.brendanavarro.bookcatalog.domain.Author;
 import com.brendanavarro.bookcatalog.domain.Book;
+import com.brendanavarro.bookcatalog.export.CatalogExporter;
+import com.brendanavarro.bookcatalog.export.ExportFormat;
+import com.brendanavarro.bookcatalog.export.ExportResult;
 import com.brendanavarro.bookcatalog.gutendex.GutendexClient;
+import com.brendanavarro.bookcatalog.gutendex.GutendexFilter;
 import com.brendanavarro.bookcatalog.gutendex.dto.BookDto;
 import com.brendanavarro.bookcatalog.gutendex.mapper.GutendexMapper;
+import com.brendanavarro.bookcatalog.query.BookQuery;
+import com.brendanavarro.bookcatalog.query.QueryEngine;
+import com.brendanavarro.bookcatalog.query.QueryPlan;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -15,23 +30,41 @@ import java.util.stream.Collectors;
 /**
  * Menú de interacción por consola (FASE 6).
  * - Usa Scanner para leer la entrada de usuario.
- * - Mantiene un catálogo EN MEMORIA (temporal) con los libros registrados.
+ * - Usa el catálogo EN MEMORIA compartido ({@link BookCatalog}) con los libros registrados.
  *   => En la siguiente fase se reemplaza por JPA/PostgreSQL.
  */
 @Component
 public class ConsoleMenu {
 
+    // Tecla fija para salir: las opciones nuevas se numeran después, sin mover esta
+    // (los scripts que alimentan stdin siguen saliendo con "6")
+    private static final int EXIT_OPTION = 6;
+
     private final GutendexClient client;
     private final GutendexMapper mapper;
+    private final BookCatalog catalog;
+    private final CatalogExporter exporter;
+    private final QueryEngine queryEngine;
+    private final ContentDownloader downloader;
+    private final CorpusAnalyzer analyzer;
+    private final CatalogImporter importer;
     private final Scanner scanner;          // Un único scanner para toda la app
     private final PrintStream out = System.out;
 
-    // Catálogo temporal en memoria: clave = gutendexId
-    private final Map<Integer, Book> catalog = new LinkedHashMap<>();
-
-    public ConsoleMenu(GutendexClient client, GutendexMapper mapper) {
+    // @Lazy: se inyecta un proxy; con el perfil "fast" (lazy-initialization) el bean real
+    // (y sus HttpClient, pools, etc.) se crea recién cuando se elige la opción que lo usa
+    public ConsoleMenu(@Lazy GutendexClient client, GutendexMapper mapper,
+                       BookCatalog catalog, @Lazy CatalogExporter exporter, QueryEngine queryEngine,
+                       @Lazy ContentDownloader downloader, @Lazy CorpusAnalyzer analyzer,
+                       @Lazy CatalogImporter importer) {
         this.client = client;
         this.mapper = mapper;
+        this.catalog = catalog;
+        this.exporter = exporter;
+        this.queryEngine = queryEngine;
+        this.downloader = downloader;
+        this.analyzer = analyzer;
+        this.importer = importer;
         this.scanner = new Scanner(System.in);
     }
 
@@ -45,12 +78,12 @@ public class ConsoleMenu {
             printOptions();
             option = readInt("Selecciona una opción: ");
             handleOption(option);
-            if (option != 6) {
+            if (option != EXIT_OPTION) {
                 out.println();
                 out.println("Presiona ENTER para continuar...");
                 scanner.nextLine(); // espera confirmación
             }
-        } while (option != 6);
+        } while (option != EXIT_OPTION);
 
         out.println("👋 ¡Gracias por usar LiterAlura! Hasta pronto.");
         // NO cerrar scanner (cerraría System.in y puede afectar otros componentes)
@@ -71,6 +104,10 @@ public class ConsoleMenu {
         out.println("4) Listar AUTORES vivos en un AÑO");
         out.println("5) Listar LIBROS por IDIOMA");
         out.println("6) Salir");
+        out.println("7) EXPORTAR catálogo (NDJSON / binario, gzip opcional)");
+        out.println("8) CONSULTA combinada (idioma, año de autor, descargas, título, orden)");
+        out.println("9) DESCARGAR textos de los libros registrados (TXT / EPUB)");
+        out.println("10) ESTADÍSTICAS de texto de los libros descargados");
         out.println("----------------------------------------------");
     }
 
@@ -81,7 +118,11 @@ public class ConsoleMenu {
             case 3 -> optionListAuthors();
             case 4 -> optionListAuthorsAliveInYear();
             case 5 -> optionListBooksByLanguage();
-            case 6 -> { /* salir */ }
+            case EXIT_OPTION -> { /* salir */ }
+            case 7 -> optionExport();
+            case 8 -> optionQuery();
+            case 9 -> optionDownloadContents();
+            case 10 -> optionTextStats();
             default -> out.println("❌ Opción inválida. Intenta nuevamente.");
         }
     }
@@ -112,11 +153,10 @@ public class ConsoleMenu {
                 return;
             }
 
-            if (catalog.containsKey(found.getGutendexId())) {
+            if (!catalog.register(found)) {
                 out.printf("ℹ️ El libro \"%s\" (ID=%d) ya estaba registrado. No se duplicará.%n",
                         found.getTitle(), found.getGutendexId());
             } else {
-                catalog.put(found.getGutendexId(), found);
                 out.printf("✅ Registrado: \"%s\" (ID=%d)%n", found.getTitle(), found.getGutendexId());
             }
 
@@ -136,7 +176,7 @@ public class ConsoleMenu {
         }
 
         AtomicInteger i = new AtomicInteger(1);
-        catalog.values().forEach(book -> {
+        catalog.books().forEach(book -> {
             out.printf("%d) %s%n", i.getAndIncrement(), book.getTitle());
             out.printf("   ID: %d | Idioma: %s | Descargas: %s%n",
                     book.getGutendexId(),
@@ -157,11 +197,8 @@ public class ConsoleMenu {
             return;
         }
 
-        // Conjunto de autores únicos por "displayName|birth|death"
-        Map<String, Author> unique = new TreeMap<>();
-        catalog.values().forEach(book ->
-                book.getAuthors().forEach(a -> unique.put(keyOf(a), a))
-        );
+        // Autores únicos por "displayName|birth|death" (índice mantenido por el catálogo)
+        Collection<Author> unique = catalog.authors();
 
         if (unique.isEmpty()) {
             out.println("  (no hay autores asociados a los libros registrados)");
@@ -169,7 +206,7 @@ public class ConsoleMenu {
         }
 
         AtomicInteger i = new AtomicInteger(1);
-        unique.values().forEach(a -> {
+        unique.forEach(a -> {
             out.printf("%d) %s%n", i.getAndIncrement(), a);
         });
     }
@@ -179,19 +216,21 @@ public class ConsoleMenu {
     private void optionListAuthorsAliveInYear() {
         out.println("📅 Autores vivos en un año específico");
         int year = readInt("Ingresa el año (ej. 1600): ");
+        Integer max = readOptionalInt("Traer de Gutendex hasta N libros (más populares) de autores vivos en ese año"
+                + " (ENTER = solo catálogo local): ");
+        if (max != null) {
+            importFromGutendex(GutendexFilter.builder()
+                    .authorAliveIn(year)
+                    .sort(GutendexFilter.Sort.POPULAR)
+                    .build(), max);
+        }
 
         if (catalog.isEmpty()) {
             out.println("  (aún no hay datos; registra libros en la opción 1)");
             return;
         }
 
-        // Distintos por clave
-        Map<String, Author> unique = new TreeMap<>();
-        catalog.values().forEach(book ->
-                book.getAuthors().forEach(a -> unique.put(keyOf(a), a))
-        );
-
-        List<Author> alive = unique.values().stream()
+        List<Author> alive = catalog.streamAuthors()
                 .filter(a -> a.isAliveIn(year))
                 .collect(Collectors.toList());
 
@@ -210,10 +249,21 @@ public class ConsoleMenu {
     private void optionListBooksByLanguage() {
         out.println("🌐 Filtrar libros por idioma");
         String code = readNonEmpty("Ingresa el código ISO del idioma (ej. ES, EN, FR, PT): ").toUpperCase(Locale.ROOT);
+        Integer max = readOptionalInt("Traer de Gutendex hasta N libros (más populares) en ese idioma"
+                + " (ENTER = solo catálogo local): ");
+        if (max != null) {
+            try {
+                importFromGutendex(GutendexFilter.builder()
+                        .languages(code)
+                        .sort(GutendexFilter.Sort.POPULAR)
+                        .build(), max);
+            } catch (IllegalArgumentException e) {
+                out.printf("  ⚠️ %s%n", e.getMessage());
+            }
+        }
 
-        List<Book> filtered = catalog.values().stream()
-                .filter(b -> code.equalsIgnoreCase(nullTo(b.getPrimaryLanguage(), "")))
-                .collect(Collectors.toList());
+        // Resuelto con el índice por idioma del catálogo (sin recorrer todos los libros)
+        List<Book> filtered = queryEngine.execute(BookQuery.builder().language(code).build());
 
         if (filtered.isEmpty()) {
             out.printf("  No hay libros registrados en idioma %s%n", code);
@@ -233,8 +283,169 @@ public class ConsoleMenu {
         });
     }
 
+    // ===================== OPCIÓN 7 =====================
+
+    /**
+     * Opción 7: exporta libros y autores a un archivo (NDJSON o binario compacto, gzip opcional).
+     */
+    private void optionExport() {
+        out.println("💾 Exportar catálogo");
+        if (catalog.isEmpty()) {
+            out.println("  (aún no hay libros; usa la opción 1 para registrar alguno)");
+            return;
+        }
+
+        try {
+            String rawFormat = readOptional("Formato [ndjson|bin] (ENTER = ndjson): ");
+            ExportFormat format = rawFormat.isEmpty() ? ExportFormat.NDJSON : ExportFormat.parse(rawFormat);
+            boolean gzip = readOptional("¿Comprimir con gzip? [s/N]: ").toLowerCase(Locale.ROOT).startsWith("s");
+
+            String defaultName = "catalogo." + format.getExtension() + (gzip ? ".gz" : "");
+            String rawPath = readOptional("Archivo de salida (ENTER = " + defaultName + "): ");
+            Path target = Path.of(rawPath.isEmpty() ? defaultName : rawPath);
+
+            ExportResult result = exporter.export(target, format, gzip);
+            out.printf("✅ Exportados %d libros y %d autores a %s (%d bytes)%n",
+                    result.books(), result.authors(), result.path().toAbsolutePath(), result.bytes());
+        } catch (Exception e) {
+            out.printf("❌ Error al exportar: %s%n", e.getMessage());
+        }
+    }
+
+    // ===================== OPCIÓN 8 =====================
+
+    /**
+     * Opción 8: consulta combinada. Cada filtro es opcional (ENTER = sin filtro).
+     * Ej.: libros en ES, de autores vivos en 1850, con más de 1000 descargas, por descargas.
+     */
+    private void optionQuery() {
+        out.println("🧮 Consulta combinada");
+        try {
+            BookQuery.Builder builder = BookQuery.builder()
+                    .language(readOptional("Idioma (ej. ES) o ENTER: "));
+
+            Integer year = readOptionalInt("Autor vivo en el AÑO (ej. 1850) o ENTER: ");
+            if (year != null) builder.authorAliveIn(year);
+
+            builder.minDownloads(readOptionalInt("Descargas MÍNIMAS o ENTER: "))
+                    .maxDownloads(readOptionalInt("Descargas MÁXIMAS o ENTER: "))
+                    .titleContains(readOptional("Texto en el TÍTULO o ENTER: "));
+
+            String sort = readOptional("Ordenar por [descargas|titulo|id] o ENTER: ").toLowerCase(Locale.ROOT);
+            switch (sort) {
+                case "descargas" -> builder.sortBy(BookQuery.SortField.DOWNLOADS, true);
+                case "titulo", "título" -> builder.sortBy(BookQuery.SortField.TITLE, false);
+                case "id" -> builder.sortBy(BookQuery.SortField.ID, false);
+                case "" -> { /* sin orden */ }
+                default -> out.println("  ⚠️ Orden desconocido; se muestra en orden de registro.");
+            }
+
+            Integer limit = readOptionalInt("Máximo de resultados o ENTER: ");
+            if (limit != null) builder.limit(limit);
+
+            QueryPlan plan = queryEngine.plan(builder.build());
+            out.println("  Plan: " + plan.explain());
+            List<Book> results = queryEngine.execute(plan);
+
+            if (results.isEmpty()) {
+                out.println("  Ningún libro registrado cumple los filtros.");
+                return;
+            }
+            AtomicInteger i = new AtomicInteger(1);
+            results.forEach(book -> out.printf("%d) %s (ID=%d) | Idioma: %s | Descargas: %s%n",
+                    i.getAndIncrement(),
+                    book.getTitle(),
+                    book.getGutendexId(),
+                    nullTo(book.getPrimaryLanguage(), "N/D"),
+                    book.getDownloadCount() == null ? "N/D" : book.getDownloadCount().toString()));
+        } catch (IllegalArgumentException e) {
+            out.printf("❌ Consulta inválida: %s%n", e.getMessage());
+        }
+    }
+
+    // ===================== OPCIÓN 9 =====================
+
+    /**
+     * Opción 9: descarga en paralelo el texto (o EPUB) de todos los libros registrados.
+     * Los archivos ya descargados y sin cambios se saltan; los cortados se continúan.
+     */
+    private void optionDownloadContents() {
+        out.println("⬇️ Descargar contenidos");
+        if (catalog.isEmpty()) {
+            out.println("  (aún no hay libros; usa la opción 1 para registrar alguno)");
+            return;
+        }
+
+        try {
+            List<DownloadResult> results = downloader.downloadAll(catalog.books());
+            Map<DownloadResult.Status, Long> byStatus = new EnumMap<>(DownloadResult.Status.class);
+            for (DownloadResult r : results) {
+                byStatus.merge(r.status(), 1L, Long::sum);
+                if (!r.isSuccess()) {
+                    out.printf("  ⚠️ ID=%d: %s (%s)%n", r.bookId(), r.status(), nullTo(r.message(), "-"));
+                }
+            }
+            long bytes = results.stream().mapToLong(DownloadResult::bytesTransferred).sum();
+            out.printf("✅ Listo en %s: %s | %d bytes transferidos%n",
+                    downloader.getDirectory().toAbsolutePath(), byStatus, bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            out.println("❌ Descarga interrumpida.");
+        }
+    }
+
+    // ===================== OPCIÓN 10 =====================
+
+    /**
+     * Opción 10: palabras, vocabulario, términos frecuentes y tiempo de lectura
+     * por libro, idioma y autor (sobre los textos descargados con la opción 9).
+     */
+    private void optionTextStats() {
+        out.println("📊 Estadísticas de texto");
+        if (catalog.isEmpty()) {
+            out.println("  (aún no hay libros; usa la opción 1 para registrar alguno)");
+            return;
+        }
+
+        try {
+            CorpusReport report = analyzer.analyze(catalog.books());
+            if (report.booksAnalyzed() == 0) {
+                out.println("  No hay textos descargados para analizar (usa la opción 9).");
+                return;
+            }
+
+            out.printf("  %d libros | %d bytes en %d ms%n",
+                    report.booksAnalyzed(), report.bytesScanned(), report.elapsedMs());
+            out.println("  Por libro:");
+            catalog.books().forEach(book -> {
+                if (book.getTextStats() != null) {
+                    out.printf("   - %s (ID=%d): %s%n", book.getTitle(), book.getGutendexId(), book.getTextStats());
+                }
+            });
+            out.println("  Por idioma:");
+            report.byLanguage().forEach((lang, stats) -> out.printf("   - %s: %s%n", lang, stats));
+            out.println("  Por autor:");
+            report.byAuthor().forEach((author, stats) -> out.printf("   - %s: %s%n", author, stats));
+            out.printf("  TOTAL: %s%n", report.total());
+            report.skipped().forEach((id, reason) -> out.printf("  ℹ️ ID=%d omitido: %s%n", id, reason));
+        } catch (Exception e) {
+            out.printf("❌ Error al analizar: %s%n", e.getMessage());
+        }
+    }
+
     // ===================== UTILIDADES =====================
 
+    /** Importa libros filtrados en el servidor de Gutendex al catálogo local (opciones 4 y 5). */
+    private void importFromGutendex(GutendexFilter filter, int max) {
+        try {
+            CatalogImporter.ImportResult result = importer.importMatching(filter, max);
+            out.printf("  🌐 Gutendex: %d libros recibidos, %d nuevos en el catálogo%n",
+                    result.fetched(), result.added());
+        } catch (Exception e) {
+            out.printf("  ❌ Error al consultar Gutendex: %s%n", e.getMessage());
+        }
+    }
+
     private void printBookSummary(Book book) {
         out.println("----------------------------------------------");
         out.println("Resumen del libro registrado:");
@@ -269,6 +480,18 @@ public class ConsoleMenu {
         }
     }
 
+    private Integer readOptionalInt(String prompt) {
+        while (true) {
+            String line = readOptional(prompt);
+            if (line.isEmpty()) return null;
+            try {
+                return Integer.parseInt(line);
+            } catch (NumberFormatException ex) {
+                out.println("  ⚠️ Ingresa un número válido o deja vacío.");
+            }
+        }
+    }
+
     private String readOptional(String prompt) {
         out.print(prompt);
         String line = scanner.nextLine();
@@ -278,11 +501,4 @@ public class ConsoleMenu {
     private String nullTo(String value, String fallback) {
         return value == null ? fallback : value;
     }
-
-    private String keyOf(Author a) {
-        // clave compuesta para deduplicar autores en memoria
-        return (a.getDisplayName() == null ? "?" : a.getDisplayName()) + "|" +
-                (a.getBirthYear() == null ? "?" : a.getBirthYear()) + "|" +
-                (a.getDeathYear() == null ? "?" : a.getDeathYear());
-    }
 }
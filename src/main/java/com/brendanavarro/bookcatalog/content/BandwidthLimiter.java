@@ -0,0 +1,44 @@
+package com.brendanavarro.bookcatalog.content;
+
+/**
+ * Límite de ancho de banda COMPARTIDO entre todas las descargas (token bucket).
+ * Cada hilo pide permiso por los bytes que acaba de leer; si se excede el
+ * presupuesto, duerme lo necesario. bytesPerSecond <= 0 = sin límite.
+ */
+final class BandwidthLimiter {
+
+    private final long bytesPerSecond;
+    private final long capacity;      // ráfaga máxima (1 segundo de presupuesto)
+    private double available;
+    private long lastRefillNanos;
+
+    BandwidthLimiter(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.capacity = Math.max(bytesPerSecond, 1);
+        this.available = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    boolean isUnlimited() { return bytesPerSecond <= 0; }
+
+    void acquire(int bytes) throws InterruptedException {
+        if (isUnlimited() || bytes <= 0) return;
+
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            available -= bytes;   // puede quedar en negativo: "deuda" que se paga durmiendo
+            waitNanos = available >= 0 ? 0 : (long) (-available * 1_000_000_000L / bytesPerSecond);
+        }
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double earned = (now - lastRefillNanos) * (double) bytesPerSecond / 1_000_000_000L;
+        available = Math.min(capacity, available + earned);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,289 @@
+package com.brendanavarro.bookcatalog.content;
+
+import com.brendanavarro.bookcatalog.domain.Book;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Descarga el contenido (texto plano o EPUB) de los libros usando {@code Book.formats}.
+ * - Varias descargas a la vez, con un máximo de conexiones y un ancho de banda compartido.
+ * - El cuerpo se copia por bloques a un FileChannel (nunca se carga el archivo completo en memoria).
+ * - Se escribe a "ID.ext.part"; si se corta, el siguiente intento continúa con HTTP Range + If-Range.
+ * - Junto a cada archivo se guarda "ID.ext.meta" (URL, ETag, Last-Modified) para pedir con
+ *   If-None-Match / If-Modified-Since y saltar archivos sin cambios (304).
+ */
+@Service
+public class ContentDownloader {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(15);
+    // Tiempo máximo hasta recibir las cabeceras (el cuerpo puede tardar más)
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    // Reintentos ante IO: cada reintento continúa desde el ".part"
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MS = 600;
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final HttpClient http;
+    private final Path directory;
+    private final int maxConnections;
+    private final BandwidthLimiter limiter;
+
+    public ContentDownloader(@Value("${bookcatalog.content.dir:contenidos}") String directory,
+                             @Value("${bookcatalog.content.max-connections:4}") int maxConnections,
+                             @Value("${bookcatalog.content.bytes-per-second:0}") long bytesPerSecond) {
+        if (maxConnections <= 0) throw new IllegalArgumentException("max-connections debe ser positivo");
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        this.directory = Path.of(directory);
+        this.maxConnections = maxConnections;
+        this.limiter = new BandwidthLimiter(bytesPerSecond);
+    }
+
+    public Path getDirectory() { return directory; }
+
+    /** Archivo local (final) donde queda el contenido de un libro en el formato dado. */
+    public Path fileFor(Integer bookId, ContentFormat format) {
+        return directory.resolve(bookId + "." + format.getExtension());
+    }
+
+    /**
+     * Descarga varios libros en paralelo (como máximo {@code maxConnections} a la vez).
+     * @return un resultado por libro, en el mismo orden recibido.
+     */
+    public List<DownloadResult> downloadAll(Collection<Book> books) throws InterruptedException {
+        if (books.isEmpty()) return List.of();
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(maxConnections, books.size()), r -> {
+            Thread t = new Thread(r, "descarga-" + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<Future<DownloadResult>> futures = new ArrayList<>(books.size());
+            for (Book book : books) futures.add(pool.submit(() -> download(book)));
+
+            List<DownloadResult> results = new ArrayList<>(books.size());
+            int i = 0;
+            for (Book book : books) {
+                try {
+                    results.add(futures.get(i++).get());
+                } catch (ExecutionException e) {
+                    results.add(failed(book.getGutendexId(), null, 0, e.getCause()));
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Descarga un libro (con reintentos). No lanza excepciones de IO: el error queda en el resultado.
+     * Si termina bien, actualiza {@code book.contentPath}.
+     */
+    public DownloadResult download(Book book) {
+        Integer id = book.getGutendexId();
+        Optional<ContentFormat.Choice> choice = ContentFormat.choose(book.getFormats());
+        if (choice.isEmpty()) {
+            return new DownloadResult(id, DownloadResult.Status.NO_FORMAT, null, 0,
+                    "Sin texto plano ni EPUB disponible");
+        }
+
+        Path file = fileFor(id, choice.get().format());
+        long[] transferred = {0};
+        long backoff = INITIAL_BACKOFF_MS;
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                DownloadResult.Status status = attempt(choice.get().url(), file, transferred);
+                book.setContentPath(file.toString());
+                return new DownloadResult(id, status, file, transferred[0], null);
+            } catch (HttpStatusException e) {
+                return failed(id, file, transferred[0], e);   // 4xx: reintentar no ayuda
+            } catch (IOException e) {
+                if (attempt == MAX_ATTEMPTS) return failed(id, file, transferred[0], e);
+                System.err.println("🌐 Descarga " + id + " (" + attempt + "/" + MAX_ATTEMPTS + "): " + e.getMessage() +
+                        " -> reintentando en " + backoff + "ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return failed(id, file, transferred[0], e);
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return failed(id, file, transferred[0], e);
+            }
+            backoff *= 2;
+        }
+        return failed(id, file, transferred[0], null);
+    }
+
+    // ===================== UN INTENTO =====================
+
+    private DownloadResult.Status attempt(String url, Path file, long[] transferred)
+            throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        Path part = partOf(file);
+        Path metaFile = metaOf(file);
+        Validators meta = Validators.load(metaFile);
+        boolean sameSource = meta != null && url.equals(meta.url()) && meta.hasValidator();
+
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .GET()
+                .timeout(REQUEST_TIMEOUT)
+                .header("User-Agent", "LiterAlura/0.0.1 (Java HttpClient) " + System.getProperty("java.version"));
+
+        long offset = 0;
+        if (sameSource && Files.exists(part) && Files.size(part) > 0) {
+            // Continuar: si el recurso cambió, If-Range hace que el servidor mande todo (200)
+            offset = Files.size(part);
+            request.header("Range", "bytes=" + offset + "-");
+            request.header("If-Range", meta.etag() != null ? meta.etag() : meta.lastModified());
+        } else if (sameSource && meta.complete() && Files.exists(file)) {
+            if (meta.etag() != null) request.header("If-None-Match", meta.etag());
+            if (meta.lastModified() != null) request.header("If-Modified-Since", meta.lastModified());
+        }
+
+        HttpResponse<InputStream> response = http.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            int code = response.statusCode();
+            if (code == 304) return DownloadResult.Status.UNCHANGED;
+            if (code == 416) {
+                // El ".part" no encaja con el recurso actual: se descarta y el reintento empieza de cero
+                Files.deleteIfExists(part);
+                throw new IOException("HTTP 416: rango no válido, se reinicia la descarga");
+            }
+            if (code >= 500) throw new IOException("HTTP " + code + " al descargar " + url);
+            if (code != 200 && code != 206) throw new HttpStatusException("HTTP " + code + " al descargar " + url);
+
+            if (code == 206) {
+                String contentRange = response.headers().firstValue("Content-Range").orElse("");
+                if (!contentRange.startsWith("bytes " + offset + "-")) {
+                    Files.deleteIfExists(part);
+                    throw new IOException("Content-Range inesperado: " + contentRange);
+                }
+            } else {
+                offset = 0;   // 200: el servidor mandó el recurso completo
+            }
+
+            Validators current = new Validators(url,
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null),
+                    false);
+            current.save(metaFile);
+
+            long expected = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            long written = copyToPart(body, part, offset, transferred);
+            if (expected >= 0 && written != expected) {
+                throw new IOException("Descarga incompleta: " + written + " de " + expected + " bytes");
+            }
+
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            new Validators(url, current.etag(), current.lastModified(), true).save(metaFile);
+            return code == 206 ? DownloadResult.Status.RESUMED : DownloadResult.Status.DOWNLOADED;
+        }
+    }
+
+    /** Copia el cuerpo al ".part" por bloques, respetando el límite de ancho de banda. */
+    private long copyToPart(InputStream body, Path part, long offset, long[] transferred)
+            throws IOException, InterruptedException {
+        StandardOpenOption mode = offset > 0 ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            if (channel.size() != offset) {
+                throw new IOException("El archivo parcial cambió durante la descarga: " + part);
+            }
+            byte[] chunk = new byte[CHUNK_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            long written = 0;
+            int n;
+            while ((n = body.read(chunk)) != -1) {
+                limiter.acquire(n);
+                buffer.clear().limit(n);
+                while (buffer.hasRemaining()) channel.write(buffer);
+                written += n;
+                transferred[0] += n;
+            }
+            return written;
+        }
+    }
+
+    private static Path partOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".part");
+    }
+
+    private static Path metaOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".meta");
+    }
+
+    private static DownloadResult failed(Integer id, Path file, long transferred, Throwable cause) {
+        String message = cause == null ? "Fallo desconocido tras reintentos" : cause.getMessage();
+        return new DownloadResult(id, DownloadResult.Status.FAILED, file, transferred, message);
+    }
+
+    /** Respuesta HTTP que no se arregla reintentando (4xx). */
+    private static final class HttpStatusException extends IOException {
+        HttpStatusException(String message) { super(message); }
+    }
+
+    /** Validadores HTTP guardados junto al archivo (formato .properties). */
+    private record Validators(String url, String etag, String lastModified, boolean complete) {
+
+        boolean hasValidator() { return etag != null || lastModified != null; }
+
+        static Validators load(Path metaFile) throws IOException {
+            if (!Files.exists(metaFile)) return null;
+            Properties p = new Properties();
+            try (InputStream in = Files.newInputStream(metaFile)) {
+                p.load(in);
+            }
+            return new Validators(p.getProperty("url"), p.getProperty("etag"),
+                    p.getProperty("last-modified"), Boolean.parseBoolean(p.getProperty("complete")));
+        }
+
+        void save(Path metaFile) throws IOException {
+            Properties p = new Properties();
+            p.setProperty("url", url);
+            if (etag != null) p.setProperty("etag", etag);
+            if (lastModified != null) p.setProperty("last-modified", lastModified);
+            p.setProperty("complete", Boolean.toString(complete));
+            try (OutputStream out = Files.newOutputStream(metaFile)) {
+                p.store(out, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.brendanavarro.bookcatalog.content;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Formatos de contenido que sabemos descargar, en orden de preferencia.
+ * Las claves de {@code formats} en Gutendex son MIME con parámetros, p. ej.
+ * "text/plain; charset=utf-8" o "application/epub+zip".
+ */
+public enum ContentFormat {
+    PLAIN_TEXT("txt"),
+    EPUB("epub");
+
+    private final String extension;
+
+    ContentFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() { return extension; }
+
+    /** Formato elegido + URL. */
+    public record Choice(ContentFormat format, String url) {}
+
+    /**
+     * Elige el mejor formato disponible:
+     * 1) texto plano UTF-8, 2) texto plano US-ASCII/sin charset (compatible con UTF-8), 3) EPUB.
+     * Se ignoran los textos empaquetados en .zip.
+     */
+    public static Optional<Choice> choose(Map<String, String> formats) {
+        if (formats == null || formats.isEmpty()) return Optional.empty();
+
+        String utf8 = null;
+        String plain = null;
+        String epub = null;
+        for (Map.Entry<String, String> e : formats.entrySet()) {
+            String mime = e.getKey() == null ? "" : e.getKey().toLowerCase(Locale.ROOT);
+            String url = e.getValue();
+            if (url == null || url.isBlank()) continue;
+
+            if (mime.startsWith("text/plain") && !url.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                if (mime.contains("utf-8")) {
+                    if (utf8 == null) utf8 = url;
+                } else if (plain == null && (!mime.contains("charset") || mime.contains("us-ascii"))) {
+                    plain = url;
+                }
+            } else if (mime.startsWith("application/epub+zip") && epub == null) {
+                epub = url;
+            }
+        }
+
+        if (utf8 != null) return Optional.of(new Choice(PLAIN_TEXT, utf8));
+        if (plain != null) return Optional.of(new Choice(PLAIN_TEXT, plain));
+        if (epub != null) return Optional.of(new Choice(EPUB, epub));
+        return Optional.empty();
+    }
+}
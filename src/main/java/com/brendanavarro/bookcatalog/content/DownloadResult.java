@@ -0,0 +1,25 @@
+package com.brendanavarro.bookcatalog.content;
+
+import java.nio.file.Path;
+
+/**
+ * Resultado de descargar el contenido de un libro.
+ */
+public record DownloadResult(Integer bookId, Status status, Path file, long bytesTransferred, String message) {
+
+    public enum Status {
+        /** Descargado completo desde cero. */
+        DOWNLOADED,
+        /** Se continuó un ".part" previo con HTTP Range. */
+        RESUMED,
+        /** El servidor respondió 304: el archivo local sigue vigente. */
+        UNCHANGED,
+        /** El libro no ofrece texto plano ni EPUB. */
+        NO_FORMAT,
+        FAILED
+    }
+
+    public boolean isSuccess() {
+        return status == Status.DOWNLOADED || status == Status.RESUMED || status == Status.UNCHANGED;
+    }
+}
@@ -36,6 +36,13 @@ public class Author {
         return afterBirth && beforeDeath;
     }
 
+    /** ¿Autor vivo en algún momento del rango [from, to]? (extremos inclusive) */
+    public boolean isAliveBetween(int from, int to) {
+        boolean bornBeforeEnd = (birthYear == null) || (birthYear <= to);
+        boolean diedAfterStart = (deathYear == null) || (deathYear >= from);
+        return bornBeforeEnd && diedAfterStart;
+    }
+
     @Override public String toString() {
         return displayName + (birthYear != null || deathYear != null
                 ? " (" + (birthYear == null ? "?" : birthYear) + "–" + (deathYear == null ? "?" : deathYear) + ")"
@@ -1,7 +1,9 @@
 package com.brendanavarro.bookcatalog.domain;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -17,6 +19,12 @@ public class Book {
     private String primaryLanguage;
     private Integer downloadCount;
     private List<Author> authors = new ArrayList<>();
+    /** Formatos disponibles: MIME -> URL (de Gutendex) */
+    private Map<String, String> formats = new LinkedHashMap<>();
+    /** Ruta local del texto descargado (null si aún no se descargó) */
+    private String contentPath;
+    /** Estadísticas del texto descargado (null si aún no se analizó) */
+    private TextStats textStats;
 
     public Integer getGutendexId() { return gutendexId; }
     public void setGutendexId(Integer gutendexId) { this.gutendexId = gutendexId; }
@@ -33,6 +41,15 @@ public class Book {
     public List<Author> getAuthors() { return authors; }
     public void setAuthors(List<Author> authors) { this.authors = authors; }
 
+    public Map<String, String> getFormats() { return formats; }
+    public void setFormats(Map<String, String> formats) { this.formats = formats; }
+
+    public String getContentPath() { return contentPath; }
+    public void setContentPath(String contentPath) { this.contentPath = contentPath; }
+
+    public TextStats getTextStats() { return textStats; }
+    public void setTextStats(TextStats textStats) { this.textStats = textStats; }
+
     @Override public String toString() {
         String authorsStr = authors.isEmpty()
                 ? "Autor desconocido"
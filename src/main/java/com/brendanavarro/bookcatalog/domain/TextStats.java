@@ -0,0 +1,22 @@
+package com.brendanavarro.bookcatalog.domain;
+
+import java.util.List;
+
+/**
+ * Estadísticas de texto de un libro (o de un grupo de libros: idioma, autor...).
+ * @param words          total de palabras
+ * @param vocabulary     palabras distintas (sin importar mayúsculas)
+ * @param readingMinutes tiempo estimado de lectura
+ * @param topTerms       términos más frecuentes, de mayor a menor
+ */
+public record TextStats(long words, int vocabulary, double readingMinutes, List<TermCount> topTerms) {
+
+    public record TermCount(String term, long count) {
+        @Override public String toString() { return term + "=" + count; }
+    }
+
+    @Override public String toString() {
+        return String.format("%d palabras | vocabulario %d | ~%.0f min de lectura | top: %s",
+                words, vocabulary, readingMinutes, topTerms);
+    }
+}
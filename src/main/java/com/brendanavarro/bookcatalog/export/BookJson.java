@@ -0,0 +1,43 @@
+package com.brendanavarro.bookcatalog.export;
+
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Campos JSON de libros y autores escritos directo en un {@link JsonGenerator}.
+ * Lo comparten la exportación NDJSON y el API HTTP para que ambos usen el mismo esquema.
+ */
+public final class BookJson {
+
+    private BookJson() {}
+
+    /** id, title, language, download_count y authors (sin abrir/cerrar el objeto). */
+    public static void writeBookFields(JsonGenerator gen, Book book) throws IOException {
+        writeNullableInt(gen, "id", book.getGutendexId());
+        gen.writeStringField("title", book.getTitle());
+        gen.writeStringField("language", book.getPrimaryLanguage());
+        writeNullableInt(gen, "download_count", book.getDownloadCount());
+        gen.writeArrayFieldStart("authors");
+        for (Author a : book.getAuthors()) {
+            gen.writeStartObject();
+            writeAuthorFields(gen, a);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    /** name, birth_year y death_year (sin abrir/cerrar el objeto). */
+    public static void writeAuthorFields(JsonGenerator gen, Author a) throws IOException {
+        gen.writeStringField("name", a.getDisplayName());
+        writeNullableInt(gen, "birth_year", a.getBirthYear());
+        writeNullableInt(gen, "death_year", a.getDeathYear());
+    }
+
+    private static void writeNullableInt(JsonGenerator gen, String field, Integer value) throws IOException {
+        if (value == null) gen.writeNullField(field);
+        else gen.writeNumberField(field, value);
+    }
+}
@@ -0,0 +1,244 @@
+package com.brendanavarro.bookcatalog.export;
+
+import com.brendanavarro.bookcatalog.catalog.BookCatalog;
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta libros y autores del catálogo en streaming (sin materializar el archivo en memoria).
+ * - Catálogo completo: se copian las referencias bajo el candado de lectura y se escribe fuera
+ *   de él, así el archivo es coherente y los registros no esperan a que termine la exportación.
+ * - NDJSON: se escribe campo a campo con el JsonGenerator de Jackson.
+ * - BINARY: registros con prefijo de longitud, pensados para lectura secuencial rápida.
+ * - Salida: FileChannel con buffer; gzip opcional se comprime en el mismo flujo.
+ * - Se escribe primero a "*.part" y se renombra al terminar (nunca queda un archivo a medias).
+ *
+ * Formato BINARY (enteros "varint" sin signo estilo protobuf):
+ * <pre>
+ *   cabecera : 'B' 'K' 'C' 'T' version(1 byte)
+ *   registro : tag(1 byte) longitud(varint) payload
+ *     tag 1 = libro : id, título, idioma, descargas, nAutores(varint), nAutores x autor
+ *     tag 2 = autor : nombre, nacimiento, muerte
+ *     tag 0 = fin   : nLibros, nAutores (cierra el archivo)
+ *   entero nullable : varint 0 = null; si no, zigzag(valor) + 1 (admite años negativos, a.C.)
+ *   texto nullable  : varint 0 = null; si no, (bytes UTF-8) + 1 seguido de los bytes
+ * </pre>
+ */
+@Component
+public class CatalogExporter {
+
+    static final byte[] BINARY_MAGIC = {'B', 'K', 'C', 'T'};
+    static final int BINARY_VERSION = 1;
+    static final int TAG_END = 0;
+    static final int TAG_BOOK = 1;
+    static final int TAG_AUTHOR = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BookCatalog catalog;
+    private final JsonFactory jsonFactory;
+
+    public CatalogExporter(BookCatalog catalog, ObjectMapper objectMapper) {
+        this.catalog = catalog;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /** Exporta el catálogo en memoria completo (una foto tomada al empezar). */
+    public ExportResult export(Path target, ExportFormat format, boolean gzip) throws IOException {
+        Snapshot snapshot = catalog.read(() ->
+                new Snapshot(List.copyOf(catalog.books()), List.copyOf(catalog.authors())));
+        return export(snapshot.books().stream(), snapshot.authors().stream(), target, format, gzip);
+    }
+
+    /**
+     * Exporta las fuentes indicadas. Los streams se consumen una sola vez y de forma perezosa,
+     * así que la memoria usada no depende del número de filas.
+     */
+    public ExportResult export(Stream<Book> books, Stream<Author> authors,
+                               Path target, ExportFormat format, boolean gzip) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+
+        long[] counts;
+        try (FileChannel channel = FileChannel.open(partial,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = openStream(channel, gzip)) {
+
+            counts = switch (format) {
+                case NDJSON -> writeNdjson(books.iterator(), authors.iterator(), out);
+                case BINARY -> writeBinary(books.iterator(), authors.iterator(), out);
+            };
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        } finally {
+            books.close();
+            authors.close();
+        }
+
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new ExportResult(target, format, gzip, counts[0], counts[1], Files.size(target));
+    }
+
+    private record Snapshot(List<Book> books, List<Author> authors) {}
+
+    private static OutputStream openStream(FileChannel channel, boolean gzip) throws IOException {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        if (!gzip) return out;
+        // El gzip recibe bloques grandes (buffer propio) y escribe al buffer del canal
+        return new BufferedOutputStream(new GZIPOutputStream(out, BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+    // ===================== NDJSON =====================
+
+    private long[] writeNdjson(Iterator<Book> books, Iterator<Author> authors, OutputStream out) throws IOException {
+        long bookCount = 0;
+        long authorCount = 0;
+
+        // El generador NO cierra el stream: de eso se encarga export()
+        try (JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+
+            while (books.hasNext()) {
+                Book book = books.next();
+                gen.writeStartObject();
+                gen.writeStringField("type", "book");
+                BookJson.writeBookFields(gen, book);
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+                bookCount++;
+            }
+
+            while (authors.hasNext()) {
+                gen.writeStartObject();
+                gen.writeStringField("type", "author");
+                BookJson.writeAuthorFields(gen, authors.next());
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+                authorCount++;
+            }
+        }
+        return new long[]{bookCount, authorCount};
+    }
+
+    // ===================== BINARIO =====================
+
+    private long[] writeBinary(Iterator<Book> books, Iterator<Author> authors, OutputStream out) throws IOException {
+        long bookCount = 0;
+        long authorCount = 0;
+
+        out.write(BINARY_MAGIC);
+        out.write(BINARY_VERSION);
+
+        // Buffer reutilizable para calcular la longitud de cada registro antes de escribirlo
+        RecordBuffer record = new RecordBuffer();
+
+        while (books.hasNext()) {
+            Book book = books.next();
+            record.reset();
+            record.writeNullableInt(book.getGutendexId());
+            record.writeNullableString(book.getTitle());
+            record.writeNullableString(book.getPrimaryLanguage());
+            record.writeNullableInt(book.getDownloadCount());
+            record.writeVarInt(book.getAuthors().size());
+            for (Author a : book.getAuthors()) {
+                record.writeAuthor(a);
+            }
+            record.flushTo(TAG_BOOK, out);
+            bookCount++;
+        }
+
+        while (authors.hasNext()) {
+            record.reset();
+            record.writeAuthor(authors.next());
+            record.flushTo(TAG_AUTHOR, out);
+            authorCount++;
+        }
+
+        record.reset();
+        record.writeVarLong(bookCount);
+        record.writeVarLong(authorCount);
+        record.flushTo(TAG_END, out);
+
+        return new long[]{bookCount, authorCount};
+    }
+
+    /** ByteArrayOutputStream que conserva su capacidad entre registros (reset no libera el arreglo). */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+
+        RecordBuffer() {
+            super(256);
+        }
+
+        void writeAuthor(Author a) {
+            writeNullableString(a.getDisplayName());
+            writeNullableInt(a.getBirthYear());
+            writeNullableInt(a.getDeathYear());
+        }
+
+        void writeNullableInt(Integer value) {
+            if (value == null) {
+                writeVarLong(0);
+            } else {
+                long zigzag = ((long) value << 1) ^ ((long) value >> 63);
+                writeVarLong(zigzag + 1);
+            }
+        }
+
+        void writeNullableString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            write(bytes, 0, bytes.length);
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(Integer.toUnsignedLong(value));
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        /** Escribe tag + longitud + payload al destino. */
+        void flushTo(int tag, OutputStream out) throws IOException {
+            out.write(tag);
+            long length = count;
+            while ((length & ~0x7FL) != 0) {
+                out.write((int) ((length & 0x7F) | 0x80));
+                length >>>= 7;
+            }
+            out.write((int) length);
+            writeTo(out);
+        }
+    }
+}
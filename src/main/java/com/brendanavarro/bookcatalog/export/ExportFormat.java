@@ -0,0 +1,31 @@
+package com.brendanavarro.bookcatalog.export;
+
+import java.util.Locale;
+
+/**
+ * Formatos de exportación del catálogo.
+ * - NDJSON: un objeto JSON por línea ({"type":"book",...} / {"type":"author",...}).
+ * - BINARY: registros compactos con prefijo de longitud (ver {@link CatalogExporter}).
+ */
+public enum ExportFormat {
+    NDJSON("ndjson"),
+    BINARY("bin");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() { return extension; }
+
+    /** Acepta "ndjson"/"json" o "bin"/"binary" (sin importar mayúsculas). */
+    public static ExportFormat parse(String raw) {
+        String value = raw == null ? "" : raw.trim().toLowerCase(Locale.ROOT);
+        return switch (value) {
+            case "ndjson", "json", "jsonl" -> NDJSON;
+            case "bin", "binary" -> BINARY;
+            default -> throw new IllegalArgumentException("Formato de exportación desconocido: " + raw);
+        };
+    }
+}
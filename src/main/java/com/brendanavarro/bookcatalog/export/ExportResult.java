@@ -0,0 +1,10 @@
+package com.brendanavarro.bookcatalog.export;
+
+import java.nio.file.Path;
+
+/**
+ * Resumen de una exportación terminada.
+ */
+public record ExportResult(Path path, ExportFormat format, boolean gzip,
+                           long books, long authors, long bytes) {
+}
@@ -3,9 +3,12 @@ package com.brendanavarro.bookcatalog.gutendex;
 import com.brendanavarro.bookcatalog.gutendex.dto.BookDto;
 import com.brendanavarro.bookcatalog.gutendex.dto.GutendexResponseDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -14,9 +17,16 @@ import java.net.http.HttpResponse;
 import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class GutendexClient {
@@ -33,8 +43,15 @@ public class GutendexClient {
 
     private final HttpClient http;
     private final ObjectMapper mapper;
+    private final String baseUrl;
 
+    @Autowired
     public GutendexClient(ObjectMapper mapper) {
+        this(mapper, BASE_URL);
+    }
+
+    /** Permite apuntar a otro servidor compatible (p. ej. uno local en pruebas). */
+    GutendexClient(ObjectMapper mapper, String baseUrl) {
         this.http = HttpClient.newBuilder()
                 .connectTimeout(CONNECT_TIMEOUT)
                 .followRedirects(HttpClient.Redirect.NORMAL)
@@ -42,31 +59,25 @@ public class GutendexClient {
                 .version(HttpClient.Version.HTTP_1_1)
                 .build();
         this.mapper = mapper;
+        this.baseUrl = baseUrl;
     }
 
     public Optional<BookDto> searchFirstByTitle(String title, String languagesCsv)
             throws IOException, InterruptedException {
 
-        String url = BASE_URL + "?search=" + urlEncode(title);
+        String url = baseUrl + "?search=" + urlEncode(title);
         if (languagesCsv != null && !languagesCsv.isBlank()) {
             url += "&languages=" + languagesCsv.toLowerCase(Locale.ROOT);
         }
 
-        HttpRequest request = baseRequest(url);
-
-        HttpResponse<String> response = sendWithRetries(request);
-        if (response.statusCode() != 200) {
-            throw new IOException("HTTP " + response.statusCode() + " al consultar Gutendex: " + response.body());
-        }
-
-        GutendexResponseDto dto = mapper.readValue(response.body(), GutendexResponseDto.class);
+        GutendexResponseDto dto = fetchPage(url);
         List<BookDto> results = dto.getResults();
         if (results == null || results.isEmpty()) return Optional.empty();
         return Optional.of(results.get(0));
     }
 
     public Optional<BookDto> getBookById(int id) throws IOException, InterruptedException {
-        String url = BASE_URL + id;
+        String url = baseUrl + id;
         HttpRequest request = baseRequest(url);
 
         HttpResponse<String> response = sendWithRetries(request);
@@ -80,6 +91,68 @@ public class GutendexClient {
         return Optional.of(book);
     }
 
+    /**
+     * Libros que cumplen los filtros, aplicados POR EL SERVIDOR (author_year_start/end,
+     * languages, search, sort). El stream es perezoso: cada página (32 libros en Gutendex)
+     * se pide solo cuando se terminó de consumir la anterior, así que un {@code limit(n)}
+     * deja de pedir páginas en cuanto hay suficientes resultados.
+     *
+     * Los errores de red se lanzan como {@link UncheckedIOException} al consumir el stream.
+     */
+    public Stream<BookDto> streamBooks(GutendexFilter filter) {
+        String query = filter.toQueryString();
+        String firstPage = query.isEmpty() ? baseUrl : baseUrl + "?" + query;
+        Iterator<BookDto> pages = new PageIterator(firstPage);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /** Recorre las páginas siguiendo el campo "next" de cada respuesta. */
+    private final class PageIterator implements Iterator<BookDto> {
+        private String nextUrl;
+        private Iterator<BookDto> current = Collections.emptyIterator();
+
+        PageIterator(String firstUrl) {
+            this.nextUrl = firstUrl;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && nextUrl != null) {
+                GutendexResponseDto page = fetchPageUnchecked(nextUrl);
+                nextUrl = page.getNext();
+                List<BookDto> results = page.getResults();
+                current = results == null ? Collections.emptyIterator() : results.iterator();
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public BookDto next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+    }
+
+    private GutendexResponseDto fetchPageUnchecked(String url) {
+        try {
+            return fetchPage(url);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Consulta a Gutendex interrumpida"));
+        }
+    }
+
+    private GutendexResponseDto fetchPage(String url) throws IOException, InterruptedException {
+        HttpResponse<String> response = sendWithRetries(baseRequest(url));
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " al consultar Gutendex: " + response.body());
+        }
+        return mapper.readValue(response.body(), GutendexResponseDto.class);
+    }
+
     private HttpRequest baseRequest(String url) {
         return HttpRequest.newBuilder()
                 .uri(URI.create(url))
@@ -0,0 +1,121 @@
+package com.brendanavarro.bookcatalog.gutendex;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Filtros que Gutendex aplica del lado del servidor (query string de /books).
+ * Todos son opcionales. Ejemplo: autores vivos en 1600, en español, por popularidad:
+ * <pre>
+ *   GutendexFilter.builder().authorAliveIn(1600).languages("es").sort(Sort.POPULAR).build();
+ * </pre>
+ */
+public final class GutendexFilter {
+
+    public enum Sort {
+        POPULAR("popular"), ASCENDING("ascending"), DESCENDING("descending");
+
+        private final String param;
+
+        Sort(String param) { this.param = param; }
+    }
+
+    private final Integer authorYearStart;
+    private final Integer authorYearEnd;
+    private final String languagesCsv;
+    private final String search;
+    private final Sort sort;
+
+    private GutendexFilter(Builder b) {
+        this.authorYearStart = b.authorYearStart;
+        this.authorYearEnd = b.authorYearEnd;
+        this.languagesCsv = b.languagesCsv;
+        this.search = b.search;
+        this.sort = b.sort;
+    }
+
+    public static Builder builder() { return new Builder(); }
+
+    public Integer getAuthorYearStart() { return authorYearStart; }
+    public Integer getAuthorYearEnd() { return authorYearEnd; }
+    public String getLanguagesCsv() { return languagesCsv; }
+    public String getSearch() { return search; }
+    public Sort getSort() { return sort; }
+
+    /** Query string (sin "?") lista para anexar a la URL base; vacía si no hay filtros. */
+    String toQueryString() {
+        StringJoiner q = new StringJoiner("&");
+        if (authorYearStart != null) q.add("author_year_start=" + authorYearStart);
+        if (authorYearEnd != null) q.add("author_year_end=" + authorYearEnd);
+        if (languagesCsv != null) q.add("languages=" + languagesCsv);
+        if (search != null) q.add("search=" + URLEncoder.encode(search, StandardCharsets.UTF_8));
+        if (sort != null) q.add("sort=" + sort.param);
+        return q.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "GutendexFilter{" + toQueryString() + '}';
+    }
+
+    public static final class Builder {
+        private Integer authorYearStart;
+        private Integer authorYearEnd;
+        private String languagesCsv;
+        private String search;
+        private Sort sort;
+
+        private Builder() {}
+
+        /** Al menos un autor vivo en el año indicado (a.C. = negativo). */
+        public Builder authorAliveIn(int year) {
+            return authorYearStart(year).authorYearEnd(year);
+        }
+
+        public Builder authorYearStart(Integer year) {
+            this.authorYearStart = year;
+            return this;
+        }
+
+        public Builder authorYearEnd(Integer year) {
+            this.authorYearEnd = year;
+            return this;
+        }
+
+        /** Códigos ISO separados por coma (ej. "en,es"). Vacío o null = sin filtro. */
+        public Builder languages(String csv) {
+            if (csv == null || csv.isBlank()) {
+                this.languagesCsv = null;
+                return this;
+            }
+            StringJoiner normalized = new StringJoiner(",");
+            for (String code : csv.split(",")) {
+                String c = code.trim().toLowerCase(Locale.ROOT);
+                if (!c.matches("[a-z]{2,3}")) throw new IllegalArgumentException("Código de idioma inválido: " + code);
+                normalized.add(c);
+            }
+            this.languagesCsv = normalized.toString();
+            return this;
+        }
+
+        /** Texto a buscar en título y autor. */
+        public Builder search(String text) {
+            this.search = text == null || text.isBlank() ? null : text.trim();
+            return this;
+        }
+
+        public Builder sort(Sort sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        public GutendexFilter build() {
+            if (authorYearStart != null && authorYearEnd != null && authorYearStart > authorYearEnd) {
+                throw new IllegalArgumentException("Rango de años inválido: " + authorYearStart + " > " + authorYearEnd);
+            }
+            return new GutendexFilter(this);
+        }
+    }
+}
@@ -20,7 +20,7 @@ public class BookDto {
     // Con SNAKE_CASE global, "download_count" -> downloadCount
     private Integer downloadCount;
 
-    // Opcionales para futuras mejoras (se mapean si vienen)
+    // Opcionales (se mapean si vienen); formats se usa para descargar los textos
     private List<String> subjects;
     private List<String> bookshelves;
     private Map<String, String> formats; // MIME -> URL
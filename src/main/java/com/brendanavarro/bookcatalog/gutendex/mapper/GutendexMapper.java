@@ -7,6 +7,7 @@ import com.brendanavarro.bookcatalog.gutendex.dto.PersonDto;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
@@ -43,6 +44,9 @@ public class GutendexMapper {
         }
         b.setAuthors(authors);
 
+        // Formatos (MIME -> URL) para la descarga de contenidos
+        if (dto.getFormats() != null) b.setFormats(new LinkedHashMap<>(dto.getFormats()));
+
         return b;
     }
 
@@ -0,0 +1,144 @@
+package com.brendanavarro.bookcatalog.query;
+
+import java.util.Locale;
+
+/**
+ * Consulta combinable sobre el catálogo (inmutable; se arma con {@link #builder()}).
+ * Todos los filtros son opcionales y se combinan con AND. Ejemplo:
+ * <pre>
+ *   BookQuery.builder()
+ *       .language("es")
+ *       .authorAliveIn(1850)
+ *       .minDownloads(1000)
+ *       .sortBy(SortField.DOWNLOADS, true)
+ *       .limit(10)
+ *       .build();
+ * </pre>
+ */
+public final class BookQuery {
+
+    public enum SortField { DOWNLOADS, TITLE, ID }
+
+    private final String language;
+    private final Integer aliveFrom;
+    private final Integer aliveTo;
+    private final Integer minDownloads;
+    private final Integer maxDownloads;
+    private final String titleContains;
+    private final SortField sortField;
+    private final boolean descending;
+    private final int limit;   // 0 = sin límite
+
+    private BookQuery(Builder b) {
+        this.language = b.language;
+        this.aliveFrom = b.aliveFrom;
+        this.aliveTo = b.aliveTo;
+        this.minDownloads = b.minDownloads;
+        this.maxDownloads = b.maxDownloads;
+        this.titleContains = b.titleContains;
+        this.sortField = b.sortField;
+        this.descending = b.descending;
+        this.limit = b.limit;
+    }
+
+    public static Builder builder() { return new Builder(); }
+
+    public String getLanguage() { return language; }
+    public Integer getAliveFrom() { return aliveFrom; }
+    public Integer getAliveTo() { return aliveTo; }
+    public Integer getMinDownloads() { return minDownloads; }
+    public Integer getMaxDownloads() { return maxDownloads; }
+    public String getTitleContains() { return titleContains; }
+    public SortField getSortField() { return sortField; }
+    public boolean isDescending() { return descending; }
+    public int getLimit() { return limit; }
+
+    public boolean hasLanguage() { return language != null; }
+    public boolean hasAuthorLifespan() { return aliveFrom != null; }
+    public boolean hasDownloadRange() { return minDownloads != null || maxDownloads != null; }
+    public boolean hasTitleText() { return titleContains != null; }
+
+    @Override
+    public String toString() {
+        return "BookQuery{" +
+                "language=" + language +
+                ", alive=" + (aliveFrom == null ? "-" : aliveFrom + ".." + aliveTo) +
+                ", downloads=" + (hasDownloadRange() ? minDownloads + ".." + maxDownloads : "-") +
+                ", title~" + titleContains +
+                ", sort=" + (sortField == null ? "-" : sortField + (descending ? " desc" : " asc")) +
+                ", limit=" + limit +
+                '}';
+    }
+
+    public static final class Builder {
+        private String language;
+        private Integer aliveFrom;
+        private Integer aliveTo;
+        private Integer minDownloads;
+        private Integer maxDownloads;
+        private String titleContains;
+        private SortField sortField;
+        private boolean descending;
+        private int limit;
+
+        private Builder() {}
+
+        /** Código ISO del idioma principal (ES, EN...). Vacío o null = sin filtro. */
+        public Builder language(String code) {
+            this.language = blankToNull(code) == null ? null : code.trim().toUpperCase(Locale.ROOT);
+            return this;
+        }
+
+        /** Al menos un autor vivo en el año indicado. */
+        public Builder authorAliveIn(int year) {
+            return authorAliveBetween(year, year);
+        }
+
+        /** Al menos un autor vivo en algún momento del rango [from, to]. */
+        public Builder authorAliveBetween(int from, int to) {
+            if (from > to) throw new IllegalArgumentException("Rango de años inválido: " + from + " > " + to);
+            this.aliveFrom = from;
+            this.aliveTo = to;
+            return this;
+        }
+
+        public Builder minDownloads(Integer min) {
+            this.minDownloads = min;
+            return this;
+        }
+
+        public Builder maxDownloads(Integer max) {
+            this.maxDownloads = max;
+            return this;
+        }
+
+        /** Texto contenido en el título (sin importar mayúsculas ni acentos). */
+        public Builder titleContains(String text) {
+            this.titleContains = blankToNull(text) == null ? null : text.trim();
+            return this;
+        }
+
+        public Builder sortBy(SortField field, boolean descending) {
+            this.sortField = field;
+            this.descending = descending;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit < 0) throw new IllegalArgumentException("El límite no puede ser negativo");
+            this.limit = limit;
+            return this;
+        }
+
+        public BookQuery build() {
+            if (minDownloads != null && maxDownloads != null && minDownloads > maxDownloads) {
+                throw new IllegalArgumentException("Rango de descargas inválido: " + minDownloads + " > " + maxDownloads);
+            }
+            return new BookQuery(this);
+        }
+
+        private static String blankToNull(String s) {
+            return s == null || s.isBlank() ? null : s;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.brendanavarro.bookcatalog.query;
+
+import com.brendanavarro.bookcatalog.catalog.BookCatalog;
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Ejecuta {@link BookQuery} sobre el catálogo en memoria.
+ *
+ * Planificación:
+ * 1) Cada filtro estima su selectividad. Idioma y descargas son EXACTAS (se cuentan en los
+ *    índices del catálogo); vida del autor se estima con el índice de autores; título usa una
+ *    constante porque no hay índice de texto.
+ * 2) El filtro indexado más selectivo se usa como ORIGEN (solo se recorren sus candidatos).
+ * 3) El resto se evalúa con corto circuito, ordenado por costo y selectividad
+ *    ({@link QueryPlan.Filter#rank()}): el título, que normaliza texto en cada fila, queda
+ *    después de las comparaciones baratas salvo que descarte muchísimo más.
+ * 4) Con orden + límite se usa top-K con heap; con muchos candidatos, stream paralelo.
+ *
+ * {@link #plan(BookQuery)} y {@link #execute(BookQuery)} leen los índices con el lock de lectura
+ * del catálogo tomado, por lo que es seguro usarlos desde varios hilos (modo servidor).
+ */
+@Service
+public class QueryEngine {
+
+    /** A partir de cuántos candidatos conviene pagar el costo de un stream paralelo. */
+    static final int PARALLEL_THRESHOLD = 20_000;
+
+    /** Selectividad supuesta para "título contiene" (sin índice de texto). */
+    private static final double TITLE_SELECTIVITY = 0.1;
+
+    // Costos relativos por fila (1 = comparar un entero)
+    private static final double COST_COMPARE = 1;
+    private static final double COST_AUTHORS = 2;     // recorre la lista de autores
+    private static final double COST_TITLE = 25;      // normaliza (NFD + regex) el título
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final BookCatalog catalog;
+
+    public QueryEngine(BookCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public List<Book> execute(BookQuery query) {
+        return catalog.read(() -> run(buildPlan(query)));
+    }
+
+    public List<Book> execute(QueryPlan plan) {
+        return catalog.read(() -> run(plan));
+    }
+
+    private List<Book> run(QueryPlan plan) {
+        Stream<Book> stream = plan.source().get();
+        if (plan.isParallel()) stream = stream.parallel();
+
+        Predicate<Book> combined = combine(plan.getFilters());
+        if (combined != null) stream = stream.filter(combined);
+
+        Comparator<Book> comparator = plan.comparator();
+        int limit = plan.getLimit();
+        if (comparator == null) {
+            return (limit > 0 ? stream.limit(limit) : stream).toList();
+        }
+        if (limit > 0) {
+            return stream.collect(TopK.collector(limit, comparator));
+        }
+        return stream.sorted(comparator).toList();
+    }
+
+    // ===================== PLANIFICACIÓN =====================
+
+    public QueryPlan plan(BookQuery query) {
+        return catalog.read(() -> buildPlan(query));
+    }
+
+    private QueryPlan buildPlan(BookQuery query) {
+        int total = catalog.size();
+
+        // Candidatos a ORIGEN: filtros resueltos por índice, con su cardinalidad exacta
+        String sourceDescription = "recorrido completo";
+        Supplier<Stream<Book>> source = catalog::streamBooks;
+        long sourceRows = total;
+        boolean languageIsSource = false;
+        boolean downloadsIsSource = false;
+
+        if (query.hasLanguage()) {
+            List<Book> byLanguage = catalog.booksInLanguage(query.getLanguage());
+            if (byLanguage.size() < sourceRows) {
+                sourceDescription = "índice idioma=" + query.getLanguage();
+                source = byLanguage::stream;
+                sourceRows = byLanguage.size();
+                languageIsSource = true;
+            }
+        }
+        if (query.hasDownloadRange()) {
+            Integer min = query.getMinDownloads();
+            Integer max = query.getMaxDownloads();
+            int byDownloads = catalog.countBooksWithDownloadsBetween(min, max);
+            if (byDownloads < sourceRows) {
+                sourceDescription = "índice descargas=" + rangeOf(min, max);
+                source = () -> catalog.streamBooksWithDownloadsBetween(min, max);
+                sourceRows = byDownloads;
+                languageIsSource = false;
+                downloadsIsSource = true;
+            }
+        }
+
+        // El filtro que ya resolvió el índice no se vuelve a evaluar
+        List<QueryPlan.Filter> filters = new ArrayList<>();
+        if (query.hasLanguage() && !languageIsSource) {
+            filters.add(languageFilter(query.getLanguage(), total));
+        }
+        if (query.hasDownloadRange() && !downloadsIsSource) {
+            filters.add(downloadsFilter(query.getMinDownloads(), query.getMaxDownloads(), total));
+        }
+        if (query.hasAuthorLifespan()) {
+            filters.add(lifespanFilter(query.getAliveFrom(), query.getAliveTo()));
+        }
+        if (query.hasTitleText()) {
+            filters.add(titleFilter(query.getTitleContains()));
+        }
+        filters.sort(Comparator.comparingDouble(QueryPlan.Filter::rank));
+
+        return new QueryPlan(sourceDescription, source, sourceRows, filters,
+                comparatorOf(query), query.getLimit(), sourceRows >= PARALLEL_THRESHOLD);
+    }
+
+    private QueryPlan.Filter languageFilter(String code, int total) {
+        double selectivity = fraction(catalog.booksInLanguage(code).size(), total);
+        return new QueryPlan.Filter("idioma=" + code,
+                b -> code.equalsIgnoreCase(b.getPrimaryLanguage()), selectivity, COST_COMPARE);
+    }
+
+    private QueryPlan.Filter downloadsFilter(Integer min, Integer max, int total) {
+        double selectivity = fraction(catalog.countBooksWithDownloadsBetween(min, max), total);
+        return new QueryPlan.Filter("descargas=" + rangeOf(min, max), b -> {
+            Integer d = b.getDownloadCount();
+            return d != null && (min == null || d >= min) && (max == null || d <= max);
+        }, selectivity, COST_COMPARE);
+    }
+
+    private QueryPlan.Filter lifespanFilter(int from, int to) {
+        // Estimación: fracción de autores únicos vivos en el rango
+        long alive = catalog.streamAuthors().filter(a -> a.isAliveBetween(from, to)).count();
+        double selectivity = fraction(alive, catalog.authors().size());
+        String label = from == to ? "autor vivo en " + from : "autor vivo en " + from + ".." + to;
+        return new QueryPlan.Filter(label, b -> {
+            for (Author a : b.getAuthors()) {
+                if (a.isAliveBetween(from, to)) return true;
+            }
+            return false;
+        }, selectivity, COST_AUTHORS);
+    }
+
+    private static QueryPlan.Filter titleFilter(String text) {
+        String needle = normalize(text);
+        return new QueryPlan.Filter("título~\"" + text + "\"",
+                b -> b.getTitle() != null && normalize(b.getTitle()).contains(needle), TITLE_SELECTIVITY, COST_TITLE);
+    }
+
+    private static Comparator<Book> comparatorOf(BookQuery query) {
+        if (query.getSortField() == null) return null;
+        boolean desc = query.isDescending();
+        Comparator<Book> order = switch (query.getSortField()) {
+            case DOWNLOADS -> Comparator.comparing(Book::getDownloadCount, nullsLast(desc, Comparator.<Integer>naturalOrder()));
+            case TITLE -> Comparator.comparing(Book::getTitle, nullsLast(desc, String.CASE_INSENSITIVE_ORDER));
+            case ID -> Comparator.comparing(Book::getGutendexId, nullsLast(desc, Comparator.<Integer>naturalOrder()));
+        };
+        // Desempate estable por ID para que el resultado sea determinista (también en paralelo)
+        return order.thenComparing(Book::getGutendexId, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    /** Los null siempre al final, sin importar la dirección del orden. */
+    private static <T> Comparator<T> nullsLast(boolean descending, Comparator<T> natural) {
+        return Comparator.nullsLast(descending ? natural.reversed() : natural);
+    }
+
+    private static Predicate<Book> combine(List<QueryPlan.Filter> filters) {
+        Predicate<Book> combined = null;
+        for (QueryPlan.Filter f : filters) {
+            combined = combined == null ? f.predicate() : combined.and(f.predicate());
+        }
+        return combined;
+    }
+
+    private static double fraction(long part, long total) {
+        return total == 0 ? 0.0 : (double) part / total;
+    }
+
+    private static String rangeOf(Integer min, Integer max) {
+        return (min == null ? "*" : min) + ".." + (max == null ? "*" : max);
+    }
+
+    /** Minúsculas y sin acentos ("Quijote" == "quijóte"). */
+    static String normalize(String s) {
+        String decomposed = Normalizer.normalize(s, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,86 @@
+package com.brendanavarro.bookcatalog.query;
+
+import com.brendanavarro.bookcatalog.domain.Book;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Plan de ejecución de una {@link BookQuery}, producido por {@link QueryEngine#plan(BookQuery)}.
+ * - source: de dónde salen los candidatos (índice más selectivo o recorrido completo).
+ * - filters: predicados restantes ordenados por {@link Filter#rank()} (se evalúan con corto circuito).
+ * - comparator + limit: si ambos existen se usa un heap acotado (top-K) en vez de ordenar todo.
+ */
+public final class QueryPlan {
+
+    /**
+     * Predicado con su selectividad estimada (fracción de libros que lo cumplen, 0..1) y su costo
+     * relativo por fila (1 = comparar un entero).
+     */
+    public record Filter(String description, Predicate<Book> predicate, double selectivity, double cost) {
+
+        /**
+         * Costo por fila descartada: cost / (1 - selectividad). Ordenar de menor a mayor minimiza el
+         * costo esperado del corto circuito (un filtro caro va primero solo si descarta mucho).
+         */
+        public double rank() {
+            double rejected = 1.0 - selectivity;
+            return rejected <= 0 ? Double.POSITIVE_INFINITY : cost / rejected;
+        }
+    }
+
+    private final String sourceDescription;
+    private final Supplier<Stream<Book>> source;
+    private final long estimatedRows;
+    private final List<Filter> filters;
+    private final Comparator<Book> comparator;   // null = orden del catálogo
+    private final int limit;                     // 0 = sin límite
+    private final boolean parallel;
+
+    QueryPlan(String sourceDescription, Supplier<Stream<Book>> source, long estimatedRows,
+              List<Filter> filters, Comparator<Book> comparator, int limit, boolean parallel) {
+        this.sourceDescription = sourceDescription;
+        this.source = source;
+        this.estimatedRows = estimatedRows;
+        this.filters = List.copyOf(filters);
+        this.comparator = comparator;
+        this.limit = limit;
+        this.parallel = parallel;
+    }
+
+    public String getSourceDescription() { return sourceDescription; }
+    public long getEstimatedRows() { return estimatedRows; }
+    public List<Filter> getFilters() { return filters; }
+    public int getLimit() { return limit; }
+    public boolean isParallel() { return parallel; }
+    public boolean isSorted() { return comparator != null; }
+
+    Supplier<Stream<Book>> source() { return source; }
+    Comparator<Book> comparator() { return comparator; }
+
+    /** Descripción legible del plan (útil para depurar en consola). */
+    public String explain() {
+        String filterList = filters.isEmpty()
+                ? "(ninguno)"
+                : filters.stream()
+                    .map(f -> String.format("%s [~%.0f%%]", f.description(), f.selectivity() * 100))
+                    .collect(Collectors.joining(" -> "));
+        String strategy;
+        if (comparator != null && limit > 0) strategy = "top-" + limit + " con heap";
+        else if (comparator != null) strategy = "orden completo";
+        else if (limit > 0) strategy = "corte en " + limit;
+        else strategy = "sin orden ni límite";
+
+        return "Origen: " + sourceDescription + " (~" + estimatedRows + " candidatos)" +
+                " | Filtros: " + filterList +
+                " | " + strategy +
+                (parallel ? " | paralelo" : "");
+    }
+
+    @Override
+    public String toString() { return explain(); }
+}
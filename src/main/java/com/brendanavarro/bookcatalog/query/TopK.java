@@ -0,0 +1,46 @@
+package com.brendanavarro.bookcatalog.query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * Collector "top-K": conserva solo los K mejores elementos según un comparador,
+ * usando un heap acotado (O(n log K) en vez de ordenar los n elementos).
+ * Funciona con streams paralelos: cada hilo llena su heap y luego se combinan.
+ */
+final class TopK {
+
+    private TopK() {}
+
+    /** @return los K primeros elementos según {@code order}, ya ordenados. */
+    static <T> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> order) {
+        if (k <= 0) throw new IllegalArgumentException("K debe ser positivo");
+        // La cabeza del heap es el PEOR de los K conservados (el primero en salir)
+        Comparator<? super T> worstFirst = order.reversed();
+
+        return Collector.<T, PriorityQueue<T>, List<T>>of(
+                () -> new PriorityQueue<>(k + 1, worstFirst),
+                (heap, item) -> offer(heap, item, k, order),
+                (left, right) -> {
+                    for (T item : right) offer(left, item, k, order);
+                    return left;
+                },
+                heap -> {
+                    List<T> result = new ArrayList<>(heap);
+                    result.sort(order);
+                    return result;
+                });
+    }
+
+    private static <T> void offer(PriorityQueue<T> heap, T item, int k, Comparator<? super T> order) {
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (order.compare(item, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.brendanavarro.bookcatalog.server;
+
+import com.brendanavarro.bookcatalog.catalog.BookCatalog;
+import com.brendanavarro.bookcatalog.catalog.CatalogImporter;
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+import com.brendanavarro.bookcatalog.export.BookJson;
+import com.brendanavarro.bookcatalog.gutendex.GutendexClient;
+import com.brendanavarro.bookcatalog.gutendex.GutendexFilter;
+import com.brendanavarro.bookcatalog.gutendex.dto.BookDto;
+import com.brendanavarro.bookcatalog.gutendex.mapper.GutendexMapper;
+import com.brendanavarro.bookcatalog.query.BookQuery;
+import com.brendanavarro.bookcatalog.query.QueryEngine;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API HTTP/JSON del catálogo (perfil "server"; ver application-server.yml).
+ *
+ * <pre>
+ *   GET  /books?language=&amp;aliveIn=&amp;minDownloads=&amp;maxDownloads=&amp;title=&amp;sort=&amp;order=&amp;limit=
+ *   GET  /books/{id}
+ *   GET  /authors?aliveIn=
+ *   POST /books?title=&amp;languages=               busca en Gutendex y registra (201 nuevo, 200 ya existía)
+ *   POST /books/import?aliveIn=&amp;languages=&amp;max=  importación filtrada en Gutendex
+ * </pre>
+ *
+ * - Hilos: pool fijo de {@code bookcatalog.server.threads} hilos (el build es Java 17, sin hilos
+ *   virtuales). Un hilo se ocupa solo mientras se atiende una petición: las conexiones keep-alive
+ *   inactivas esperan en el selector del HttpServer, así que miles de lectores conectados no
+ *   necesitan miles de hilos (ver CatalogServerBenchmark). Las lecturas usan CPU unos pocos ms;
+ *   los POST esperan a Gutendex y son los que justifican más hilos que núcleos.
+ * - Los listados se escriben con JsonGenerator directo al cuerpo, con transferencia "chunked":
+ *   no se arma el JSON completo en memoria.
+ * - ETag = revisión del catálogo ({@link BookCatalog#revision()}: época del proceso + versión).
+ *   Con If-None-Match igual se responde 304 sin ejecutar la consulta; cualquier registro (o un
+ *   reinicio) invalida todos los ETag.
+ */
+@Component
+@Profile("server")
+public class CatalogHttpServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogHttpServer.class);
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int DEFAULT_IMPORT_MAX = 32;
+    private static final int STOP_GRACE_SECONDS = 2;
+
+    private final BookCatalog catalog;
+    private final QueryEngine queryEngine;
+    private final JsonFactory jsonFactory;
+    private final GutendexClient client;
+    private final GutendexMapper mapper;
+    private final CatalogImporter importer;
+    private final int port;
+    private final int backlog;
+    private final int threads;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public CatalogHttpServer(BookCatalog catalog, QueryEngine queryEngine, ObjectMapper objectMapper,
+                             @Lazy GutendexClient client, GutendexMapper mapper, @Lazy CatalogImporter importer,
+                             @Value("${bookcatalog.server.port:8080}") int port,
+                             @Value("${bookcatalog.server.backlog:1024}") int backlog,
+                             @Value("${bookcatalog.server.threads:32}") int threads) {
+        this.catalog = catalog;
+        this.queryEngine = queryEngine;
+        this.jsonFactory = objectMapper.getFactory();
+        this.client = client;
+        this.mapper = mapper;
+        this.importer = importer;
+        this.port = port;
+        this.backlog = backlog;
+        this.threads = threads;
+    }
+
+    // ===================== CICLO DE VIDA =====================
+
+    @Override
+    public synchronized void start() {
+        if (server != null) return;
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), backlog);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el puerto " + port, e);
+        }
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/books", dispatch(this::handleBooks));
+        server.createContext("/authors", dispatch(this::handleAuthors));
+        server.start();
+        log.info("API HTTP escuchando en el puerto {} ({} hilos)", port(), threads);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) return;
+        server.stop(STOP_GRACE_SECONDS);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_GRACE_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        executor = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    /** Puerto real (útil con port=0 en pruebas). */
+    public synchronized int port() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    // ===================== RUTAS =====================
+
+    /** Ruta que puede lanzar {@link BadRequest} (400) o cualquier otra excepción (500). */
+    @FunctionalInterface
+    private interface Route {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /** Manejo común de errores y cierre del intercambio para todas las rutas. */
+    private HttpHandler dispatch(Route route) {
+        return exchange -> {
+            try {
+                route.handle(exchange);
+            } catch (BadRequest e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                log.warn("Error atendiendo {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+                sendError(exchange, 500, "Error interno");
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private void handleBooks(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        Map<String, String> params = queryParams(exchange.getRequestURI().getRawQuery());
+
+        if (path.equals("/books") || path.equals("/books/")) {
+            switch (method) {
+                case "GET" -> listBooks(exchange, params);
+                case "POST" -> registerByTitle(exchange, params);
+                default -> sendError(exchange, 405, "Método no permitido: " + method);
+            }
+        } else if (path.equals("/books/import")) {
+            if (method.equals("POST")) importBooks(exchange, params);
+            else sendError(exchange, 405, "Método no permitido: " + method);
+        } else if (!path.startsWith("/books/")) {
+            sendError(exchange, 404, "Ruta desconocida: " + path);
+        } else if (method.equals("GET")) {
+            getBook(exchange, path.substring("/books/".length()));
+        } else {
+            sendError(exchange, 405, "Método no permitido: " + method);
+        }
+    }
+
+    private void handleAuthors(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.equals("/authors") && !path.equals("/authors/")) {
+            sendError(exchange, 404, "Ruta desconocida: " + path);
+            return;
+        }
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Método no permitido: " + exchange.getRequestMethod());
+            return;
+        }
+        Map<String, String> params = queryParams(exchange.getRequestURI().getRawQuery());
+        Integer aliveIn = intParam(params, "aliveIn");
+        if (notModified(exchange)) return;
+
+        // Se materializa bajo el lock de lectura; la revisión leída ahí es la del resultado
+        Versioned<List<Author>> result = catalog.read(() -> new Versioned<>(catalog.revision(),
+                catalog.streamAuthors().filter(a -> aliveIn == null || a.isAliveIn(aliveIn)).toList()));
+        try (JsonGenerator gen = startChunked(exchange, 200, result.revision())) {
+            gen.writeStartArray();
+            for (Author a : result.value()) {
+                gen.writeStartObject();
+                BookJson.writeAuthorFields(gen, a);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    // ===================== LECTURAS =====================
+
+    private void listBooks(HttpExchange exchange, Map<String, String> params) throws IOException {
+        BookQuery query = toQuery(params);
+        if (notModified(exchange)) return;
+
+        Versioned<List<Book>> result = catalog.read(() ->
+                new Versioned<>(catalog.revision(), queryEngine.execute(query)));
+        try (JsonGenerator gen = startChunked(exchange, 200, result.revision())) {
+            gen.writeStartArray();
+            for (Book book : result.value()) {
+                writeBook(gen, book);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private void getBook(HttpExchange exchange, String rawId) throws IOException {
+        int id = parseInt("id", rawId);
+        if (notModified(exchange)) return;
+
+        Versioned<Optional<Book>> result = catalog.read(() ->
+                new Versioned<>(catalog.revision(), catalog.findById(id)));
+        if (result.value().isEmpty()) {
+            sendError(exchange, 404, "No hay libro con ID " + id);
+            return;
+        }
+        try (JsonGenerator gen = startChunked(exchange, 200, result.revision())) {
+            writeBook(gen, result.value().get());
+        }
+    }
+
+    /** Traduce los parámetros de /books a una {@link BookQuery}; cualquier valor inválido es un 400. */
+    static BookQuery toQuery(Map<String, String> params) {
+        BookQuery.Builder b = BookQuery.builder();
+        try {
+            if (params.containsKey("language")) b.language(params.get("language"));
+            Integer aliveIn = intParam(params, "aliveIn");
+            if (aliveIn != null) b.authorAliveIn(aliveIn);
+            Integer min = intParam(params, "minDownloads");
+            if (min != null) b.minDownloads(min);
+            Integer max = intParam(params, "maxDownloads");
+            if (max != null) b.maxDownloads(max);
+            if (params.containsKey("title")) b.titleContains(params.get("title"));
+            if (params.containsKey("sort")) {
+                BookQuery.SortField field = BookQuery.SortField.valueOf(params.get("sort").toUpperCase(Locale.ROOT));
+                String order = params.getOrDefault("order", field == BookQuery.SortField.DOWNLOADS ? "desc" : "asc");
+                if (!order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc")) {
+                    throw new BadRequest("order debe ser asc o desc");
+                }
+                b.sortBy(field, order.equalsIgnoreCase("desc"));
+            }
+            Integer limit = intParam(params, "limit");
+            if (limit != null) b.limit(limit);
+            return b.build();
+        } catch (IllegalArgumentException e) {
+            // Incluye sort desconocido y las validaciones del builder
+            throw e instanceof BadRequest ? e : new BadRequest(e.getMessage());
+        }
+    }
+
+    // ===================== ESCRITURAS =====================
+
+    private void registerByTitle(HttpExchange exchange, Map<String, String> params) throws IOException {
+        String title = params.get("title");
+        if (title == null || title.isBlank()) throw new BadRequest("Falta el parámetro title");
+        String languages = GutendexFilter.builder().languages(params.get("languages")).build().getLanguagesCsv();
+
+        Optional<BookDto> found;
+        try {
+            found = client.searchFirstByTitle(title.trim(), languages);
+        } catch (IOException e) {
+            sendError(exchange, 502, "Gutendex no respondió: " + describe(e));
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "Petición interrumpida");
+            return;
+        }
+        Book book = found.map(mapper::toDomain).orElse(null);
+        if (book == null || book.getGutendexId() == null) {
+            sendError(exchange, 404, "Gutendex no tiene libros con título \"" + title + "\"");
+            return;
+        }
+
+        boolean added = catalog.register(book);
+        if (added) exchange.getResponseHeaders().set("Location", "/books/" + book.getGutendexId());
+        try (JsonGenerator gen = startChunked(exchange, added ? 201 : 200, catalog.revision())) {
+            writeBook(gen, added ? book : catalog.findById(book.getGutendexId()).orElse(book));
+        }
+    }
+
+    private void importBooks(HttpExchange exchange, Map<String, String> params) throws IOException {
+        GutendexFilter.Builder filter = GutendexFilter.builder().sort(GutendexFilter.Sort.POPULAR);
+        Integer aliveIn = intParam(params, "aliveIn");
+        if (aliveIn != null) filter.authorAliveIn(aliveIn);
+        Integer max = intParam(params, "max");
+        if (max != null && max <= 0) throw new BadRequest("max debe ser positivo");
+        CatalogImporter.ImportResult result;
+        try {
+            filter.languages(params.get("languages"));
+            result = importer.importMatching(filter.build(), max == null ? DEFAULT_IMPORT_MAX : max);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest(e.getMessage());
+        } catch (UncheckedIOException e) {
+            sendError(exchange, 502, "Gutendex no respondió: " + describe(e));
+            return;
+        }
+
+        try (JsonGenerator gen = startChunked(exchange, 200, catalog.revision())) {
+            gen.writeStartObject();
+            gen.writeNumberField("fetched", result.fetched());
+            gen.writeNumberField("added", result.added());
+            gen.writeEndObject();
+        }
+    }
+
+    // ===================== HTTP =====================
+
+    /** Valor leído junto con la revisión del catálogo en la que se obtuvo. */
+    private record Versioned<T>(String revision, T value) {}
+
+    private static String etagOf(String revision) {
+        return "\"" + revision + "\"";
+    }
+
+    private boolean notModified(HttpExchange exchange) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) return false;
+        String etag = etagOf(catalog.revision());
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals(etag) || c.equals("W/" + etag) || c.equals("*")) {
+                exchange.getResponseHeaders().set("ETag", etag);
+                // Sin cuerpo, el HttpServer da la respuesta por terminada al enviar las cabeceras:
+                // si el cuerpo de la petición no se leyó hasta el final, cierra la conexión keep-alive
+                exchange.getRequestBody().close();
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Envía cabeceras con largo 0 (= chunked) y devuelve un generador sobre el cuerpo. */
+    private JsonGenerator startChunked(HttpExchange exchange, int status, String revision) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.getResponseHeaders().set("ETag", etagOf(revision));
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(status, 0);
+        OutputStream body = new BufferedOutputStream(exchange.getResponseBody(), BUFFER_SIZE);
+        return jsonFactory.createGenerator(body, JsonEncoding.UTF8);
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        try (JsonGenerator gen = startError(exchange, status)) {
+            gen.writeStartObject();
+            gen.writeStringField("error", message);
+            gen.writeEndObject();
+        } catch (IOException e) {
+            // Si las cabeceras ya salieron (falla a mitad de un listado) solo queda cortar la conexión
+            log.debug("No se pudo enviar el error {}: {}", status, e.getMessage());
+        }
+    }
+
+    private JsonGenerator startError(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, 0);
+        return jsonFactory.createGenerator(exchange.getResponseBody(), JsonEncoding.UTF8);
+    }
+
+    private static void writeBook(JsonGenerator gen, Book book) throws IOException {
+        gen.writeStartObject();
+        BookJson.writeBookFields(gen, book);
+        gen.writeEndObject();
+    }
+
+    private static String describe(Exception e) {
+        return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+    }
+
+    static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static Integer intParam(Map<String, String> params, String name) {
+        String raw = params.get(name);
+        return raw == null || raw.isBlank() ? null : parseInt(name, raw);
+    }
+
+    private static int parseInt(String name, String raw) {
+        try {
+            return Integer.parseInt(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequest(name + " debe ser un entero: " + raw);
+        }
+    }
+
+    /** Parámetro inválido: se responde 400 con el mensaje. */
+    static final class BadRequest extends IllegalArgumentException {
+        BadRequest(String message) {
+            super(message);
+        }
+    }
+}
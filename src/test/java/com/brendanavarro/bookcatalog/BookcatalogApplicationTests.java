@@ -3,7 +3,8 @@ package com.brendanavarro.bookcatalog;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Sin menú: de lo contrario el runner se queda leyendo la entrada estándar de la prueba
+@SpringBootTest(properties = "bookcatalog.console.enabled=false")
 class BookcatalogApplicationTests {
 
 	@Test
@@ -0,0 +1,21 @@
+package com.brendanavarro.bookcatalog;
+
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+
+/** Libros de prueba compartidos por los tests de los distintos paquetes. */
+public final class TestBooks {
+
+    private TestBooks() {}
+
+    /** Libro con los campos que usan catálogo, consultas y exportación; {@code author} puede ser null. */
+    public static Book book(int id, String title, String lang, Integer downloads, Author author) {
+        Book b = new Book();
+        b.setGutendexId(id);
+        b.setTitle(title);
+        b.setPrimaryLanguage(lang);
+        b.setDownloadCount(downloads);
+        if (author != null) b.getAuthors().add(author);
+        return b;
+    }
+}
@@ -0,0 +1,148 @@
+package com.brendanavarro.bookcatalog.analytics;
+
+import com.brendanavarro.bookcatalog.TestBooks;
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+import com.brendanavarro.bookcatalog.domain.TextStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorpusAnalyzerTest {
+
+    private static final String[] WORDS = {
+            "el", "caballero", "señor", "don't", "l’homme", "niño", "Straße", "año", "1605", "QUIJOTE"
+    };
+    private static final String[] SEPARATORS = {" ", "  ", ", ", ".\n", " — ", "“", "” ", "\r\n", "' "};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void countsMatchReferenceTokenizerAcrossChunkBoundaries() throws IOException {
+        // Varios MB: obliga a partir el archivo en muchas hojas, con cortes a mitad de palabra/carácter
+        String text = randomText(new Random(42), TokenizeTask.CHUNK_SIZE * 3 + 12345);
+        Book quijote = book(2000, "ES", write("2000.txt", text), new Author("Cervantes Saavedra, Miguel de", 1547, 1616));
+        Book small = book(2001, "ES", write("2001.txt", "Niño niño NIÑO don't"), new Author("Anónimo", null, null));
+        Book epub = book(2002, "EN", "libro.epub", null);
+
+        CorpusReport report = new CorpusAnalyzer().analyze(List.of(quijote, small, epub));
+
+        Map<String, Long> expected = referenceCounts(text);
+        TextStats stats = quijote.getTextStats();
+        assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), stats.words());
+        assertEquals(expected.size(), stats.vocabulary());
+        for (TextStats.TermCount term : stats.topTerms()) {
+            assertEquals(expected.get(term.term()), term.count(), term.term());
+        }
+        assertEquals(stats.words() / CorpusAnalyzer.WORDS_PER_MINUTE, stats.readingMinutes(), 1e-9);
+
+        assertEquals(4, small.getTextStats().words());
+        assertEquals(new TextStats.TermCount("niño", 3), small.getTextStats().topTerms().get(0));
+        assertEquals(new TextStats.TermCount("don't", 1), small.getTextStats().topTerms().get(1));
+
+        assertEquals(2, report.booksAnalyzed());
+        assertEquals(stats.words() + 4, report.byLanguage().get("ES").words());
+        assertEquals(4, report.byAuthor().get("Anónimo").words());
+        assertTrue(report.skipped().containsKey(2002));
+        assertNull(epub.getTextStats());
+    }
+
+    @Test
+    void countsOnlyTextBetweenGutenbergMarkers() throws IOException {
+        String text = "The Project Gutenberg eBook of Niebla\nlicense license project gutenberg\n"
+                + "*** START OF THE PROJECT GUTENBERG EBOOK NIEBLA ***\n"
+                + "Augusto niebla niebla\n"
+                + "*** END OF THE PROJECT GUTENBERG EBOOK NIEBLA ***\n"
+                + "Project Gutenberg license footer\n";
+        Book niebla = book(2003, "ES", write("2003.txt", text), null);
+
+        new CorpusAnalyzer().analyze(List.of(niebla));
+
+        assertEquals(3, niebla.getTextStats().words());
+        assertEquals(new TextStats.TermCount("niebla", 2), niebla.getTextStats().topTerms().get(0));
+    }
+
+    @Test
+    void markersAreOnlySearchedInHeadAndTailWindows() {
+        // Un libro sin cabecera que cita las marcas a mitad del texto: no recorta nada
+        String filler = "texto ".repeat(CorpusAnalyzer.MARKER_WINDOW / 6 + 1);
+        String text = filler + "*** START OF cita\n" + filler + "*** END OF cita\n" + filler;
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+
+        assertArrayEquals(new int[]{0, buffer.limit()}, CorpusAnalyzer.bodyRange(buffer));
+    }
+
+    @Test
+    void invalidUtf8LargerThanAChunkDoesNotRecurseForever() throws IOException {
+        // Solo bytes de continuación: antes el punto de corte avanzaba hasta el final del rango
+        byte[] garbage = new byte[TokenizeTask.CHUNK_SIZE * 3];
+        Arrays.fill(garbage, (byte) 0x80);
+        Path file = Files.write(dir.resolve("2004.txt"), garbage);
+        Book broken = book(2004, "ES", file.toString(), null);
+
+        new CorpusAnalyzer().analyze(List.of(broken));
+
+        assertEquals(0, broken.getTextStats().words());
+    }
+
+    // ===================== REFERENCIA (con Strings) =====================
+
+    /** Misma regla que TokenizeTask, pero simple: letras/dígitos con apóstrofos internos. */
+    private static Map<String, Long> referenceCounts(String text) {
+        Map<String, Long> counts = new HashMap<>();
+        int[] cps = text.codePoints().toArray();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= cps.length; i++) {
+            int cp = i < cps.length ? cps[i] : ' ';
+            boolean apostropheInside = (cp == '\'' || cp == '’') && word.length() > 0
+                    && i + 1 < cps.length && Character.isLetterOrDigit(cps[i + 1]);
+            if (Character.isLetterOrDigit(cp)) {
+                word.appendCodePoint(Character.toLowerCase(cp));
+            } else if (apostropheInside) {
+                word.append('\'');
+            } else if (word.length() > 0) {
+                counts.merge(word.toString().toLowerCase(Locale.ROOT), 1L, Long::sum);
+                word.setLength(0);
+            }
+        }
+        return counts;
+    }
+
+    private static String randomText(Random random, int minBytes) {
+        StringBuilder sb = new StringBuilder();
+        int bytes = 0;
+        while (bytes < minBytes) {
+            // Distribución sesgada para que el top-N sea estable
+            String w = WORDS[Math.min(WORDS.length - 1, (int) Math.abs(random.nextGaussian() * 3))];
+            String sep = SEPARATORS[random.nextInt(SEPARATORS.length)];
+            String piece = w + sep;
+            sb.append(piece);
+            bytes += piece.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return sb.toString();
+    }
+
+    private String write(String name, String text) throws IOException {
+        return Files.writeString(dir.resolve(name), text, StandardCharsets.UTF_8).toString();
+    }
+
+    private static Book book(int id, String lang, String contentPath, Author author) {
+        Book b = TestBooks.book(id, "Libro " + id, lang, null, author);
+        b.setContentPath(contentPath);
+        return b;
+    }
+}
@@ -0,0 +1,368 @@
+package com.brendanavarro.bookcatalog.benchmark;
+
+import com.brendanavarro.bookcatalog.BookcatalogApplication;
+import com.brendanavarro.bookcatalog.TestBooks;
+import com.brendanavarro.bookcatalog.catalog.BookCatalog;
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+import com.brendanavarro.bookcatalog.gutendex.mapper.GutendexMapper;
+import com.brendanavarro.bookcatalog.query.QueryEngine;
+import com.brendanavarro.bookcatalog.server.CatalogHttpServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark del API HTTP: miles de lectores CONECTADOS a la vez contra un catálogo grande mientras
+ * un escritor registra libros (cambia el ETag). Cada lector abre su propia conexión keep-alive y
+ * la mantiene toda la corrida; entre petición y petición "piensa" un tiempo al azar (media
+ * {@code benchmark.thinkMs}), como un cliente real. La mitad de las veces revalida con
+ * If-None-Match.
+ *
+ * Verifica el objetivo de concurrencia: todas las conexiones abiertas a la vez, 0 errores y p99
+ * por debajo de {@code benchmark.maxP99Ms}. Reporta peticiones/s, p50/p99/max, 200/304 y
+ * reconexiones (conexiones que cerró el servidor).
+ *
+ * No corre con "mvn test" (el nombre no termina en Test). Uso:
+ * <pre>
+ *   mvn test -Dtest=CatalogServerBenchmark \
+ *       -Dbenchmark.readers=2000 -Dbenchmark.seconds=60 -Dbenchmark.threads=32
+ * </pre>
+ * {@code benchmark.threads} es el tamaño del pool del servidor: sirve para comparar tamaños.
+ * Las pausas llegan a 1,5 x thinkMs: por encima de 30 s el HttpServer cierra la conexión inactiva
+ * ({@code sun.net.httpserver.idleInterval}) y el lector reconecta.
+ * Lectores, servidor y escritor comparten la máquina, así que la latencia incluye esa competencia.
+ */
+class CatalogServerBenchmark {
+
+    private static final String[] LANGUAGES = {"EN", "ES", "FR", "DE", "IT"};
+    private static final int WARM_UP_REQUESTS = 5_000;
+
+    static {
+        // Mismos ajustes del HttpServer que aplica main() antes de arrancar la app
+        BookcatalogApplication.configureHttpServer();
+    }
+
+    @Test
+    void thousandsOfConnectedReaders() throws Exception {
+        int readers = Integer.getInteger("benchmark.readers", 2000);
+        int seconds = Integer.getInteger("benchmark.seconds", 60);
+        int bookCount = Integer.getInteger("benchmark.books", 50_000);
+        int threads = Integer.getInteger("benchmark.threads", 32);
+        int thinkMs = Integer.getInteger("benchmark.thinkMs", 10_000);
+        int writeEveryMs = Integer.getInteger("benchmark.writeEveryMs", 15_000);
+        int maxP99Ms = Integer.getInteger("benchmark.maxP99Ms", 100);
+
+        BookCatalog catalog = new BookCatalog();
+        Random random = new Random(7);
+        for (int i = 1; i <= bookCount; i++) catalog.register(book(i, random));
+
+        CatalogHttpServer server = new CatalogHttpServer(catalog, new QueryEngine(catalog), new ObjectMapper(),
+                null, new GutendexMapper(), null, 0, readers * 2, threads);
+        server.start();
+        try {
+            int port = server.port();
+            warmUp(port);
+            Stats stats = new Stats();
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            CountDownLatch done = new CountDownLatch(readers);
+            List<long[]> latencies = new ArrayList<>(readers);
+
+            for (int r = 0; r < readers; r++) {
+                long[] samples = new long[(int) ((long) seconds * 1000 / thinkMs) * 4 + 16];
+                latencies.add(samples);
+                Thread reader = new Thread(() -> {
+                    try {
+                        read(port, deadline, thinkMs, samples, stats);
+                    } finally {
+                        done.countDown();
+                    }
+                }, "lector-" + r);
+                reader.setDaemon(true);
+                reader.start();
+            }
+
+            // Escritor: cada libro nuevo invalida los ETag vigentes
+            Thread writer = new Thread(() -> {
+                int id = bookCount + 1;
+                long left;
+                while ((left = (deadline - System.nanoTime()) / 1_000_000) > 0) {
+                    if (!pause(Math.min(writeEveryMs, left))) return;
+                    catalog.register(book(id++, random));
+                }
+            }, "escritor");
+            writer.start();
+
+            done.await();
+            writer.join();
+
+            long[] all = merge(latencies);
+            double p99 = percentile(all, 0.99);
+            System.out.printf("%n%d lectores, pool de %d hilos, %d libros, %ds, pausa media %dms,"
+                            + " un registro cada %dms, Java %s%n",
+                    readers, threads, bookCount, seconds, thinkMs, writeEveryMs, Runtime.version().feature());
+            System.out.printf("conexiones abiertas a la vez (máx): %d, reconexiones: %d%n",
+                    stats.peakOpen.get(), stats.reconnects.get());
+            System.out.printf("peticiones: %d (%.0f/s), 200: %d, 304: %d, errores: %d%n",
+                    all.length, all.length / (double) seconds, stats.ok.get(), stats.notModified.get(),
+                    stats.errors.get());
+            System.out.printf("latencia p50 %.1fms  p99 %.1fms  max %.1fms%n",
+                    percentile(all, 0.50), p99, percentile(all, 1.0));
+
+            assertEquals(0, stats.errors.get(), "Hubo peticiones fallidas");
+            assertEquals(readers, stats.peakOpen.get(), "No todos los lectores estuvieron conectados a la vez");
+            assertTrue(p99 <= maxP99Ms, () -> String.format("p99 %.1fms supera %dms", p99, maxP99Ms));
+        } finally {
+            server.stop();
+        }
+    }
+
+    /** Calienta el JIT del servidor antes de medir: sin esto el p99 refleja la compilación. */
+    private static void warmUp(int port) throws IOException {
+        Connection connection = new Connection(port);
+        try {
+            for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+                connection.get(booksPath(LANGUAGES[i % LANGUAGES.length]), null);
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    /** Un lector: una conexión keep-alive propia; si el servidor la cierra, reconecta. */
+    private static void read(int port, long deadline, int thinkMs, long[] samples, Stats stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Arranque escalonado: las conexiones se abren a lo largo de la primera pausa
+        if (!pause(random.nextInt(thinkMs))) return;
+
+        Connection connection = null;
+        String etag = null;
+        int n = 0;
+        try {
+            while (System.nanoTime() < deadline && n < samples.length) {
+                if (connection == null) {
+                    connection = new Connection(port);
+                    stats.opened();
+                }
+                String language = LANGUAGES[random.nextInt(LANGUAGES.length)];
+                // La mitad de las veces revalida con el último ETag conocido
+                String ifNoneMatch = etag != null && random.nextBoolean() ? etag : null;
+
+                long start = System.nanoTime();
+                Response response;
+                try {
+                    response = connection.get(booksPath(language), ifNoneMatch);
+                } catch (EOFException closedByServer) {
+                    connection.close();
+                    stats.closed();
+                    stats.reconnects.incrementAndGet();
+                    connection = null;
+                    continue;
+                }
+                samples[n++] = System.nanoTime() - start;
+                switch (response.status()) {
+                    case 200 -> stats.ok.incrementAndGet();
+                    case 304 -> stats.notModified.incrementAndGet();
+                    default -> stats.errors.incrementAndGet();
+                }
+                if (response.etag() != null) etag = response.etag();
+
+                if (!pause(thinkMs / 2 + random.nextInt(thinkMs + 1))) return;
+            }
+        } catch (IOException e) {
+            stats.errors.incrementAndGet();
+        } finally {
+            if (connection != null) {
+                connection.close();
+                stats.closed();
+            }
+        }
+    }
+
+    private static String booksPath(String language) {
+        return "/books?language=" + language + "&sort=downloads&limit=50";
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Las muestras sin usar quedan en 0. */
+    private static long[] merge(List<long[]> latencies) {
+        return latencies.stream()
+                .flatMapToLong(s -> Arrays.stream(s).takeWhile(v -> v > 0))
+                .sorted()
+                .toArray();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static Book book(int id, Random random) {
+        int birth = 1500 + random.nextInt(400);
+        return TestBooks.book(id, "Libro " + id, LANGUAGES[random.nextInt(LANGUAGES.length)],
+                random.nextInt(100_000),
+                new Author("Autor " + random.nextInt(5_000), birth, birth + 40 + random.nextInt(40)));
+    }
+
+    private record Response(int status, String etag) {}
+
+    /**
+     * Cliente HTTP/1.1 mínimo sobre un socket propio. El HttpClient del JDK comparte sus conexiones
+     * entre hilos: con pausas, unas pocas conexiones atenderían a todos los lectores.
+     */
+    private static final class Connection {
+
+        private final Socket socket;
+        private final OutputStream out;
+        private final InputStream in;
+
+        Connection(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(60_000);
+            out = socket.getOutputStream();
+            in = new BufferedInputStream(socket.getInputStream());
+        }
+
+        /**
+         * @throws EOFException si el servidor ya había cerrado la conexión keep-alive (o la cerró
+         *                      mientras se enviaba la petición): un GET se puede reintentar
+         */
+        Response get(String path, String ifNoneMatch) throws IOException {
+            StringBuilder request = new StringBuilder("GET ").append(path).append(" HTTP/1.1\r\n")
+                    .append("Host: localhost\r\n");
+            if (ifNoneMatch != null) request.append("If-None-Match: ").append(ifNoneMatch).append("\r\n");
+            String statusLine;
+            try {
+                out.write(request.append("\r\n").toString().getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                statusLine = readLine();
+            } catch (SocketException reset) {
+                statusLine = null;
+            }
+            if (statusLine == null) throw new EOFException();
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+
+            String etag = null;
+            boolean chunked = false;
+            long length = 0;
+            for (String line = requireLine(); !line.isEmpty(); line = requireLine()) {
+                int colon = line.indexOf(':');
+                String value = line.substring(colon + 1).trim();
+                switch (line.substring(0, colon).trim().toLowerCase(Locale.ROOT)) {
+                    case "etag" -> etag = value;
+                    case "transfer-encoding" -> chunked = value.equalsIgnoreCase("chunked");
+                    case "content-length" -> length = Long.parseLong(value);
+                    default -> { }
+                }
+            }
+            if (status != 304) {
+                if (chunked) skipChunks();
+                else skip(length);
+            }
+            return new Response(status, etag);
+        }
+
+        private void skipChunks() throws IOException {
+            while (true) {
+                String size = requireLine();
+                int semicolon = size.indexOf(';');
+                long n = Long.parseLong((semicolon < 0 ? size : size.substring(0, semicolon)).trim(), 16);
+                if (n == 0) {
+                    // Trailers (ninguno) hasta la línea vacía final
+                    while (!requireLine().isEmpty()) { }
+                    return;
+                }
+                skip(n);
+                requireLine();
+            }
+        }
+
+        private void skip(long n) throws IOException {
+            while (n > 0) {
+                long skipped = in.skip(n);
+                if (skipped <= 0) {
+                    if (in.read() < 0) throw new IOException("Respuesta incompleta");
+                    skipped = 1;
+                }
+                n -= skipped;
+            }
+        }
+
+        /** A mitad de una respuesta el cierre es un error, no una reconexión. */
+        private String requireLine() throws IOException {
+            String line = readLine();
+            if (line == null) throw new IOException("Respuesta incompleta");
+            return line;
+        }
+
+        /** Línea sin el CRLF; null si la conexión se cerró antes de leer nada. */
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    int end = line.length();
+                    if (end > 0 && line.charAt(end - 1) == '\r') line.setLength(end - 1);
+                    return line.toString();
+                }
+                line.append((char) b);
+            }
+            return line.length() == 0 ? null : line.toString();
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // el lector ya terminó con esta conexión
+            }
+        }
+    }
+
+    private static final class Stats {
+        final AtomicInteger ok = new AtomicInteger();
+        final AtomicInteger notModified = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        final AtomicInteger reconnects = new AtomicInteger();
+        final AtomicInteger open = new AtomicInteger();
+        final AtomicInteger peakOpen = new AtomicInteger();
+
+        void opened() {
+            peakOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+        }
+
+        void closed() {
+            open.decrementAndGet();
+        }
+    }
+}
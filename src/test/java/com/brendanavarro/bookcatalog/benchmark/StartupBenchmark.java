@@ -0,0 +1,130 @@
+package com.brendanavarro.bookcatalog.benchmark;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark de arranque: lanza la app empaquetada varias veces por modo y mide, desde que se crea
+ * el proceso, (1) cuándo aparece el menú y (2) cuándo responde la primera consulta (opción 5).
+ * El primer modo es la línea base: cada fila reporta también su diferencia contra ese modo.
+ *
+ * No corre con "mvn test" (el nombre no termina en Test). Uso:
+ * <pre>
+ *   mvn -Pcds package -DskipTests
+ *   mvn test -Dtest=StartupBenchmark -Dbenchmark.runs=10
+ * </pre>
+ */
+class StartupBenchmark {
+
+    private static final Path CDS_DIR = Path.of("target", "cds");
+    private static final Path JAR = CDS_DIR.resolve("bookcatalog-0.0.1-SNAPSHOT-cds.jar");
+    private static final Path ARCHIVE = CDS_DIR.resolve("bookcatalog.jsa");
+
+    // Exactamente lo que lee el menú: opción 5, idioma ES, ENTER = sin importar de Gutendex,
+    // ENTER para continuar y 6 para salir
+    private static final String SCRIPT = "5\nES\n\n\n6\n";
+    private static final String MENU_MARKER = "Selecciona una opci";
+    // Si el script se desfasa del menú aparece alguno de estos avisos
+    private static final List<String> INPUT_ERRORS = List.of("número válido", "Opción inválida");
+    private static final String QUERY_MARKER = "idioma ES";
+
+    private record Mode(String name, List<String> jvmArgs) {}
+
+    private record Sample(double startupMs, double firstQueryMs) {}
+
+    @Test
+    void compareStartupModes() throws Exception {
+        Assumptions.assumeTrue(Files.exists(JAR), "Primero: mvn -Pcds package -DskipTests");
+        int runs = Integer.getInteger("benchmark.runs", 5);
+
+        List<Mode> modes = new ArrayList<>(List.of(
+                // Lo que hacía el perfil "api" antes: auto-configuración completa menos DataSource
+                new Mode("api (auto-config completa)", List.of(
+                        "-Dspring.profiles.active=api",
+                        "-Dspring.boot.enableautoconfiguration=true",
+                        "-Dspring.autoconfigure.exclude=org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration")),
+                new Mode("api (auto-config explícita)", List.of("-Dspring.profiles.active=api")),
+                new Mode("api,fast (lazy)", List.of("-Dspring.profiles.active=api,fast"))));
+        if (Files.exists(ARCHIVE)) {
+            modes.add(new Mode("api,fast + CDS", List.of(
+                    "-XX:SharedArchiveFile=" + ARCHIVE.toAbsolutePath(), "-Xlog:cds=error",
+                    "-Dspring.profiles.active=api,fast")));
+        }
+
+        System.out.printf("%n%-30s %12s %12s %12s %12s %14s%n", "modo (" + runs + " corridas)",
+                "menú p50", "menú min", "consulta p50", "consulta min", "vs base (p50)");
+        double baseline = -1;
+        for (Mode mode : modes) {
+            runOnce(mode);   // calentamiento (caché de disco)
+            double[] startup = new double[runs];
+            double[] query = new double[runs];
+            for (int i = 0; i < runs; i++) {
+                Sample s = runOnce(mode);
+                startup[i] = s.startupMs();
+                query[i] = s.firstQueryMs();
+            }
+            double p50 = median(query);
+            if (baseline < 0) baseline = p50;
+            System.out.printf("%-30s %10.0fms %10.0fms %10.0fms %10.0fms %+13.1f%%%n", mode.name(),
+                    median(startup), Arrays.stream(startup).min().orElse(0),
+                    p50, Arrays.stream(query).min().orElse(0), (p50 - baseline) * 100 / baseline);
+        }
+    }
+
+    private static Sample runOnce(Mode mode) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(mode.jvmArgs());
+        command.add("-jar");
+        command.add(JAR.toAbsolutePath().toString());
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (OutputStream stdin = process.getOutputStream()) {
+            stdin.write(SCRIPT.getBytes(StandardCharsets.UTF_8));
+        }
+
+        long menuAt = -1;
+        long queryAt = -1;
+        StringBuilder seen = new StringBuilder();
+        try (InputStream stdout = process.getInputStream()) {
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = stdout.read(buf)) != -1) {
+                seen.append(new String(buf, 0, n, StandardCharsets.ISO_8859_1));
+                long now = System.nanoTime();
+                if (menuAt < 0 && seen.indexOf(MENU_MARKER) >= 0) menuAt = now;
+                if (queryAt < 0 && seen.indexOf(QUERY_MARKER) >= 0) queryAt = now;
+            }
+        }
+        if (!process.waitFor(60, TimeUnit.SECONDS)) process.destroyForcibly();
+        assertEquals(0, process.exitValue(), () -> "Salida inesperada (" + mode.name() + "):\n" + seen);
+        if (menuAt < 0 || queryAt < 0) throw new IllegalStateException("No se vio el menú/consulta:\n" + seen);
+        String output = new String(seen.toString().getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+        for (String error : INPUT_ERRORS) {
+            if (output.contains(error)) throw new IllegalStateException("El script no coincide con el menú:\n" + output);
+        }
+
+        return new Sample((menuAt - start) / 1e6, (queryAt - start) / 1e6);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+    }
+}
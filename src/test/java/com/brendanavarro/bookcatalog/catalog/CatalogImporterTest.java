@@ -0,0 +1,39 @@
+package com.brendanavarro.bookcatalog.catalog;
+
+import com.brendanavarro.bookcatalog.config.JacksonConfig;
+import com.brendanavarro.bookcatalog.gutendex.GutendexFilter;
+import com.brendanavarro.bookcatalog.gutendex.GutendexStub;
+import com.brendanavarro.bookcatalog.gutendex.mapper.GutendexMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static com.brendanavarro.bookcatalog.TestBooks.book;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogImporterTest {
+
+    @Test
+    void mergesIntoCatalogSkippingDuplicatesAndStopsAtMax() throws IOException {
+        try (GutendexStub stub = GutendexStub.start(5, 2)) {
+            BookCatalog catalog = new BookCatalog();
+            // El ID 2 ya estaba registrado (con otro título): no se reemplaza
+            catalog.register(book(2, "Ya registrado", "ES", 10, null));
+            CatalogImporter importer = new CatalogImporter(
+                    stub.client(new JacksonConfig().objectMapper()), new GutendexMapper(), catalog);
+
+            CatalogImporter.ImportResult result = importer.importMatching(
+                    GutendexFilter.builder().languages("es").build(), 3);
+
+            assertEquals(3, result.fetched());
+            assertEquals(2, result.added());
+            assertEquals(3, catalog.size());
+            assertEquals("Ya registrado", catalog.findById(2).orElseThrow().getTitle());
+            assertTrue(catalog.contains(1));
+            assertTrue(catalog.contains(3));
+            assertFalse(catalog.contains(4));
+            // 3 libros = 2 páginas de 2: la paginación se corta al llegar al máximo
+            assertEquals(2, stub.queries().size());
+        }
+    }
+}
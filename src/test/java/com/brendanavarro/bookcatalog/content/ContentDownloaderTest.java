@@ -0,0 +1,147 @@
+package com.brendanavarro.bookcatalog.content;
+
+import com.brendanavarro.bookcatalog.TestBooks;
+import com.brendanavarro.bookcatalog.domain.Book;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba contra un servidor HTTP local que imita a gutenberg.org (ETag, Range, If-Range, 304).
+ */
+class ContentDownloaderTest {
+
+    private static final String ETAG = "\"v1\"";
+    private static final byte[] CONTENT = "En un lugar de la Mancha, de cuyo nombre no quiero acordarme... "
+            .repeat(4000).getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private final AtomicBoolean cutNextResponse = new AtomicBoolean(false);
+    private final List<String> rangeHeaders = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/files/", this::serve);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void downloadsPreferredFormatThenSkipsUnchanged() throws Exception {
+        ContentDownloader downloader = new ContentDownloader(dir.toString(), 2, 0);
+        Book book = book(84, Map.of(
+                "application/epub+zip", url("84.epub"),
+                "text/plain; charset=utf-8", url("84.txt")));
+        Book noFormat = book(85, Map.of("image/jpeg", url("85.jpg")));
+
+        List<DownloadResult> first = downloader.downloadAll(List.of(book, noFormat));
+        assertEquals(DownloadResult.Status.DOWNLOADED, first.get(0).status());
+        assertEquals(DownloadResult.Status.NO_FORMAT, first.get(1).status());
+        assertArrayEquals(CONTENT, Files.readAllBytes(dir.resolve("84.txt")));
+        assertEquals(dir.resolve("84.txt").toString(), book.getContentPath());
+
+        DownloadResult second = downloader.download(book);
+        assertEquals(DownloadResult.Status.UNCHANGED, second.status());
+        assertEquals(0, second.bytesTransferred());
+    }
+
+    @Test
+    void resumesCutDownloadWithRangeRequest() throws Exception {
+        ContentDownloader downloader = new ContentDownloader(dir.toString(), 1, 0);
+        Book book = book(2000, Map.of("text/plain; charset=utf-8", url("2000.txt")));
+
+        cutNextResponse.set(true);
+        DownloadResult result = downloader.download(book);
+
+        assertEquals(DownloadResult.Status.RESUMED, result.status(), result.message());
+        assertArrayEquals(CONTENT, Files.readAllBytes(dir.resolve("2000.txt")));
+        assertFalse(Files.exists(dir.resolve("2000.txt.part")));
+        // Se pide solo lo que faltaba: desde lo que alcanzó a llegar al ".part"
+        assertEquals(1, rangeHeaders.size());
+        long from = Long.parseLong(rangeHeaders.get(0).replaceAll("\\D", ""));
+        assertTrue(from > 0 && from <= CONTENT.length / 2, rangeHeaders.get(0));
+    }
+
+    @Test
+    void bandwidthBudgetSlowsTransfers() throws Exception {
+        // ~260 KB a 128 KB/s: la primera ráfaga (1 s de presupuesto) es gratis, el resto espera
+        int bytesPerSecond = 128 * 1024;
+        ContentDownloader slow = new ContentDownloader(dir.toString(), 1, bytesPerSecond);
+        Book book = book(1, Map.of("text/plain", url("1.txt")));
+
+        long start = System.nanoTime();
+        assertTrue(slow.download(book).isSuccess());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long budgetMs = (CONTENT.length - bytesPerSecond) * 1000L / bytesPerSecond;
+        assertTrue(elapsedMs >= budgetMs * 0.8, "tardó " + elapsedMs + "ms, se esperaban ~" + budgetMs + "ms");
+    }
+
+    // ===================== SERVIDOR DE PRUEBA =====================
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().set("ETag", ETAG);
+
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (range != null && ETAG.equals(exchange.getRequestHeaders().getFirst("If-Range"))) {
+                rangeHeaders.add(range);
+                int from = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+                exchange.getResponseHeaders().set("Content-Range",
+                        "bytes " + from + "-" + (CONTENT.length - 1) + "/" + CONTENT.length);
+                exchange.sendResponseHeaders(206, CONTENT.length - from);
+                exchange.getResponseBody().write(CONTENT, from, CONTENT.length - from);
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, CONTENT.length);
+            OutputStream body = exchange.getResponseBody();
+            if (cutNextResponse.getAndSet(false)) {
+                // Se anuncia el largo completo pero se corta a la mitad
+                body.write(CONTENT, 0, CONTENT.length / 2);
+                body.flush();
+                throw new IOException("corte simulado");
+            }
+            body.write(CONTENT);
+        }
+    }
+
+    private String url(String file) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/files/" + file;
+    }
+
+    private static Book book(int id, Map<String, String> formats) {
+        Book b = TestBooks.book(id, "Libro " + id, null, null, null);
+        b.setFormats(formats);
+        return b;
+    }
+}
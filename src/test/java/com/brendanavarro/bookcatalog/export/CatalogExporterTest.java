@@ -0,0 +1,109 @@
+package com.brendanavarro.bookcatalog.export;
+
+import com.brendanavarro.bookcatalog.catalog.BookCatalog;
+import com.brendanavarro.bookcatalog.config.JacksonConfig;
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static com.brendanavarro.bookcatalog.TestBooks.book;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogExporterTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void exportsCatalogAsGzippedNdjson() throws IOException {
+        BookCatalog catalog = new BookCatalog();
+        Author cervantes = new Author("Cervantes Saavedra, Miguel de", 1547, 1616);
+        catalog.register(book(2000, "Don Quijote", "ES", 15000, cervantes));
+        catalog.register(book(1342, "Pride and Prejudice", "EN", null, new Author("Austen, Jane", 1775, 1817)));
+
+        Path target = dir.resolve("catalogo.ndjson.gz");
+        ExportResult result = new CatalogExporter(catalog, objectMapper).export(target, ExportFormat.NDJSON, true);
+
+        assertEquals(2, result.books());
+        assertEquals(2, result.authors());
+        assertFalse(Files.exists(dir.resolve("catalogo.ndjson.gz.part")));
+
+        List<String> lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(target)), StandardCharsets.UTF_8))) {
+            lines = reader.lines().toList();
+        }
+        assertEquals(4, lines.size());
+
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("book", first.get("type").asText());
+        assertEquals(2000, first.get("id").asInt());
+        assertEquals(15000, first.get("download_count").asInt());
+        assertEquals("Cervantes Saavedra, Miguel de", first.get("authors").get(0).get("name").asText());
+        assertTrue(objectMapper.readTree(lines.get(1)).get("download_count").isNull());
+        assertEquals("author", objectMapper.readTree(lines.get(3)).get("type").asText());
+    }
+
+    @Test
+    void binaryFormatIsLengthPrefixedAndEndsWithCounts() throws IOException {
+        int rows = 50_000;
+        Stream<Book> books = IntStream.range(0, rows)
+                .mapToObj(i -> book(i, "Título " + i, "ES", i, new Author("Autor, " + i, -384, null)));
+
+        Path target = dir.resolve("catalogo.bin");
+        ExportResult result = new CatalogExporter(new BookCatalog(), objectMapper)
+                .export(books, Stream.empty(), target, ExportFormat.BINARY, false);
+        assertEquals(rows, result.books());
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(target))) {
+            byte[] magic = new byte[4];
+            in.readFully(magic);
+            assertArrayEquals(CatalogExporter.BINARY_MAGIC, magic);
+            assertEquals(CatalogExporter.BINARY_VERSION, in.readUnsignedByte());
+
+            long seen = 0;
+            int tag;
+            while ((tag = in.readUnsignedByte()) != CatalogExporter.TAG_END) {
+                assertEquals(CatalogExporter.TAG_BOOK, tag);
+                in.skipNBytes(readVarLong(in));
+                seen++;
+            }
+            assertEquals(rows, seen);
+
+            readVarLong(in); // longitud del registro final
+            assertEquals(rows, readVarLong(in));
+            assertEquals(0, readVarLong(in));
+            assertEquals(-1, in.read());
+        }
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.read();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,60 @@
+package com.brendanavarro.bookcatalog.gutendex;
+
+import com.brendanavarro.bookcatalog.config.JacksonConfig;
+import com.brendanavarro.bookcatalog.gutendex.dto.BookDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Paginación perezosa contra un servidor local con el mismo formato de respuesta que Gutendex.
+ */
+class GutendexClientTest {
+
+    private static final int PAGES = 5;
+    private static final int PAGE_SIZE = 2;
+
+    private GutendexStub stub;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        stub = GutendexStub.start(PAGES, PAGE_SIZE);
+    }
+
+    @AfterEach
+    void stopServer() {
+        stub.close();
+    }
+
+    @Test
+    void pushesFiltersToServerAndFetchesPagesOnDemand() {
+        GutendexClient client = stub.client(new JacksonConfig().objectMapper());
+        GutendexFilter filter = GutendexFilter.builder()
+                .authorAliveIn(1600)
+                .languages("ES, en")
+                .sort(GutendexFilter.Sort.POPULAR)
+                .build();
+
+        List<Integer> ids = client.streamBooks(filter).limit(3).map(BookDto::getId).toList();
+
+        assertEquals(List.of(1, 2, 3), ids);
+        // 3 libros = 2 páginas; las 3 restantes nunca se piden
+        List<String> queries = stub.queries();
+        assertEquals(2, queries.size());
+        assertEquals("author_year_start=1600&author_year_end=1600&languages=es,en&sort=popular", queries.get(0));
+        assertTrue(queries.get(1).endsWith("&page=2"), queries.get(1));
+    }
+
+    @Test
+    void streamEndsAfterLastPage() {
+        GutendexClient client = stub.client(new JacksonConfig().objectMapper());
+
+        assertEquals(PAGES * PAGE_SIZE, client.streamBooks(GutendexFilter.builder().build()).count());
+        assertEquals(PAGES, stub.queries().size());
+    }
+}
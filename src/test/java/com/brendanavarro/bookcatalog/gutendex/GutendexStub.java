@@ -0,0 +1,86 @@
+package com.brendanavarro.bookcatalog.gutendex;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Servidor local con el mismo formato de respuesta que Gutendex: {@code pages} páginas de
+ * {@code pageSize} libros con IDs 1, 2, 3... enlazadas por "next". Guarda cada query string recibida.
+ */
+public final class GutendexStub implements AutoCloseable {
+
+    private final int pages;
+    private final int pageSize;
+    private final HttpServer server;
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+
+    private GutendexStub(int pages, int pageSize) throws IOException {
+        this.pages = pages;
+        this.pageSize = pageSize;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/books/", this::servePage);
+        server.start();
+    }
+
+    public static GutendexStub start(int pages, int pageSize) throws IOException {
+        return new GutendexStub(pages, pageSize);
+    }
+
+    /** Cliente real apuntando a este servidor. */
+    public GutendexClient client(ObjectMapper mapper) {
+        return new GutendexClient(mapper, baseUrl());
+    }
+
+    /** Query strings recibidas, en orden ("" si no hubo). */
+    public List<String> queries() {
+        return queries;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/books/";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void servePage(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String query = exchange.getRequestURI().getRawQuery();
+            queries.add(query == null ? "" : query);
+
+            int page = 1;
+            String base = query == null ? "" : query;
+            int idx = base.indexOf("page=");
+            if (idx >= 0) {
+                page = Integer.parseInt(base.substring(idx + "page=".length()));
+                base = base.substring(0, Math.max(0, idx - 1));
+            }
+
+            StringBuilder results = new StringBuilder();
+            for (int i = 0; i < pageSize; i++) {
+                int id = (page - 1) * pageSize + i + 1;
+                if (i > 0) results.append(',');
+                results.append("{\"id\":").append(id).append(",\"title\":\"Libro ").append(id)
+                        .append("\",\"languages\":[\"es\"],\"download_count\":").append(1000 - id).append('}');
+            }
+            String next = page < pages
+                    ? "\"" + baseUrl() + "?" + (base.isEmpty() ? "" : base + "&") + "page=" + (page + 1) + "\""
+                    : "null";
+            byte[] body = ("{\"count\":" + pages * pageSize + ",\"next\":" + next +
+                    ",\"previous\":null,\"results\":[" + results + "]}").getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.brendanavarro.bookcatalog.query;
+
+import com.brendanavarro.bookcatalog.catalog.BookCatalog;
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.domain.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static com.brendanavarro.bookcatalog.TestBooks.book;
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryEngineTest {
+
+    @Test
+    void combinesFiltersAndUsesMostSelectiveIndexAsSource() {
+        BookCatalog catalog = new BookCatalog();
+        Author galdos = new Author("Pérez Galdós, Benito", 1843, 1920);
+        Author cervantes = new Author("Cervantes Saavedra, Miguel de", 1547, 1616);
+        catalog.register(book(1, "Doña Perfecta", "ES", 1500, galdos));
+        catalog.register(book(2, "Marianela", "ES", 900, galdos));
+        catalog.register(book(3, "Don Quijote", "ES", 20000, cervantes));
+        catalog.register(book(4, "Trafalgar", "ES", 3000, galdos));
+        for (int i = 10; i < 30; i++) {
+            catalog.register(book(i, "English " + i, "EN", 5000 + i, new Author("Doe, John", 1800, 1880)));
+        }
+
+        QueryEngine engine = new QueryEngine(catalog);
+        BookQuery query = BookQuery.builder()
+                .language("es")
+                .authorAliveIn(1850)
+                .minDownloads(1000)
+                .sortBy(BookQuery.SortField.DOWNLOADS, true)
+                .build();
+
+        QueryPlan plan = engine.plan(query);
+        assertTrue(plan.getSourceDescription().startsWith("índice idioma"), plan.explain());
+        assertEquals(4, plan.getEstimatedRows());
+        assertEquals(2, plan.getFilters().size());
+        assertFalse(plan.isParallel());
+
+        List<Book> result = engine.execute(plan);
+        assertEquals(List.of(4, 1), result.stream().map(Book::getGutendexId).toList());
+    }
+
+    @Test
+    void titleFilterIgnoresCaseAndAccents() {
+        BookCatalog catalog = new BookCatalog();
+        catalog.register(book(1, "El ingenioso hidalgo Don Quijote", "ES", 10, null));
+        catalog.register(book(2, "Niebla", "ES", 10, null));
+
+        List<Book> result = new QueryEngine(catalog)
+                .execute(BookQuery.builder().titleContains("QUIJÓTE").build());
+
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getGutendexId());
+    }
+
+    @Test
+    void expensiveTitleFilterRunsAfterCheapComparisons() {
+        BookCatalog catalog = new BookCatalog();
+        for (int i = 0; i < 20; i++) {
+            catalog.register(book(i, "Libro " + i, i % 2 == 0 ? "ES" : "EN", i * 100, null));
+        }
+
+        QueryPlan plan = new QueryEngine(catalog).plan(BookQuery.builder()
+                .language("es")
+                .minDownloads(500)
+                .titleContains("libro")
+                .build());
+
+        // El título es más selectivo (0.1 vs 0.75), pero normalizar texto cuesta mucho más por fila
+        List<String> order = plan.getFilters().stream().map(QueryPlan.Filter::description).toList();
+        assertEquals(2, order.size(), plan.explain());
+        assertTrue(order.get(0).startsWith("descargas"), plan.explain());
+        assertTrue(order.get(1).startsWith("título"), plan.explain());
+    }
+
+    @Test
+    void parallelTopKMatchesFullSort() {
+        BookCatalog catalog = new BookCatalog();
+        int rows = QueryEngine.PARALLEL_THRESHOLD * 2;
+        for (int i = 0; i < rows; i++) {
+            // Descargas repetidas para ejercitar el desempate por ID
+            catalog.register(book(i, "Libro " + i, i % 2 == 0 ? "ES" : "EN", (i * 7919) % 5000, null));
+        }
+        QueryEngine engine = new QueryEngine(catalog);
+
+        BookQuery topTen = BookQuery.builder()
+                .minDownloads(100)
+                .sortBy(BookQuery.SortField.DOWNLOADS, true)
+                .limit(10)
+                .build();
+        QueryPlan plan = engine.plan(topTen);
+        assertTrue(plan.isParallel(), plan.explain());
+
+        List<Book> expected = catalog.streamBooks()
+                .filter(b -> b.getDownloadCount() >= 100)
+                .sorted(Comparator.comparing(Book::getDownloadCount).reversed()
+                        .thenComparing(Book::getGutendexId))
+                .limit(10)
+                .toList();
+        assertEquals(expected, engine.execute(plan));
+    }
+}
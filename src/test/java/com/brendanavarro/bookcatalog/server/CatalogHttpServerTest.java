@@ -0,0 +1,158 @@
+package com.brendanavarro.bookcatalog.server;
+
+import com.brendanavarro.bookcatalog.catalog.BookCatalog;
+import com.brendanavarro.bookcatalog.domain.Author;
+import com.brendanavarro.bookcatalog.gutendex.mapper.GutendexMapper;
+import com.brendanavarro.bookcatalog.query.QueryEngine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static com.brendanavarro.bookcatalog.TestBooks.book;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogHttpServerTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private BookCatalog catalog;
+    private CatalogHttpServer server;
+
+    @BeforeEach
+    void start() {
+        catalog = sampleCatalog();
+        server = serverFor(catalog);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void listsWithQueryParamsAsChunkedJson() throws Exception {
+        HttpResponse<String> response = get("/books?language=es&sort=downloads&order=desc&limit=5");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("chunked", response.headers().firstValue("Transfer-Encoding").orElse(null));
+        JsonNode books = json.readTree(response.body());
+        assertEquals(2, books.size());
+        assertEquals(1, books.get(0).get("id").asInt());
+        assertEquals("Pérez Galdós, Benito", books.get(0).get("authors").get(0).get("name").asText());
+
+        assertEquals("Pride and Prejudice", json.readTree(get("/books/3").body()).get("title").asText());
+        assertEquals(404, get("/books/99").statusCode());
+        assertEquals(1, json.readTree(get("/authors?aliveIn=1800").body()).size());
+    }
+
+    @Test
+    void etagFollowsCatalogVersion() throws Exception {
+        HttpResponse<String> first = get("/books");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertEquals("\"" + catalog.revision() + "\"", etag);
+
+        HttpResponse<String> revalidated = send(request("/books?language=en").header("If-None-Match", etag));
+        assertEquals(304, revalidated.statusCode());
+        assertEquals("", revalidated.body());
+
+        catalog.register(book(4, "Trafalgar", "ES", 3000, null));
+        HttpResponse<String> changed = send(request("/books").header("If-None-Match", etag));
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+        assertEquals(4, json.readTree(changed.body()).size());
+    }
+
+    @Test
+    void notModifiedKeepsConnectionAlive() throws Exception {
+        String etag = get("/books").headers().firstValue("ETag").orElseThrow();
+
+        try (Socket socket = new Socket("localhost", server.port())) {
+            socket.setSoTimeout(5_000);
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            out.write(("GET /books HTTP/1.1\r\nHost: localhost\r\nIf-None-Match: " + etag + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            assertTrue(in.readLine().startsWith("HTTP/1.1 304"));
+            while (!in.readLine().isEmpty()) { }
+
+            // Misma conexión: antes el servidor la cerraba después de cada 304
+            out.write("GET /books/3 HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String status = in.readLine();
+            assertNotNull(status, "El servidor cerró la conexión");
+            assertTrue(status.startsWith("HTTP/1.1 200"), status);
+        }
+    }
+
+    @Test
+    void etagFromPreviousProcessDoesNotMatchAtSameVersion() throws Exception {
+        String etag = get("/books").headers().firstValue("ETag").orElseThrow();
+
+        // Simula un reinicio: catálogo nuevo con la misma cantidad de registros (misma versión)
+        BookCatalog restarted = sampleCatalog();
+        assertEquals(catalog.version(), restarted.version());
+        CatalogHttpServer other = serverFor(restarted);
+        other.start();
+        try {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + other.port() + "/books")).header("If-None-Match", etag));
+            assertEquals(200, response.statusCode());
+            assertNotEquals(etag, response.headers().firstValue("ETag").orElseThrow());
+        } finally {
+            other.stop();
+        }
+    }
+
+    @Test
+    void rejectsInvalidParameters() throws Exception {
+        HttpResponse<String> response = get("/books?minDownloads=mucho");
+
+        assertEquals(400, response.statusCode());
+        assertTrue(json.readTree(response.body()).get("error").asText().contains("minDownloads"));
+        assertEquals(400, get("/books?sort=autor").statusCode());
+        assertEquals(400, get("/authors?aliveIn=x").statusCode());
+        assertEquals(405, send(request("/authors").DELETE()).statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return send(request(path));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static BookCatalog sampleCatalog() {
+        BookCatalog catalog = new BookCatalog();
+        Author galdos = new Author("Pérez Galdós, Benito", 1843, 1920);
+        catalog.register(book(1, "Doña Perfecta", "ES", 1500, galdos));
+        catalog.register(book(2, "Marianela", "ES", 900, galdos));
+        catalog.register(book(3, "Pride and Prejudice", "EN", 50000, new Author("Austen, Jane", 1775, 1817)));
+        return catalog;
+    }
+
+    private CatalogHttpServer serverFor(BookCatalog catalog) {
+        return new CatalogHttpServer(catalog, new QueryEngine(catalog), json,
+                null, new GutendexMapper(), null, 0, 50, 4);
+    }
+}